@@ -5,9 +5,10 @@ import com.michaelzanussi.redcode.rvm.WarriorProcess;
 
 /**
  * The <tt>AbstractRedcodeInstruction</tt> class provides a minimal implementation 
- * of the <tt>RedcodeInstruction</tt> interface. The <code>decode()</code>, 
- * <code>encode()</code>, <code>exec()</code> and <code>createInstruction()</code>
- * methods are deferred to subclasses for implementation. The methods implemented
+ * of the <tt>RedcodeInstruction</tt> and <tt>InstructionExecutor</tt> interfaces.
+ * The <code>decode()</code>, <code>encode()</code>, <code>exec()</code> and 
+ * <code>createInstruction()</code> methods are deferred to subclasses for 
+ * implementation. The methods implemented
  * in this abstract class relate solely to parsing the plain-text Redcode assembly
  * language into their constituent parts such as register values and immediate
  * values, and performing range checking on those parts.
@@ -15,7 +16,7 @@ import com.michaelzanussi.redcode.rvm.WarriorProcess;
  * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
  * @version 1.0 (10 May 2004) 
  */
-public abstract class AbstractRedcodeInstruction implements RedcodeInstruction {
+public abstract class AbstractRedcodeInstruction implements RedcodeInstruction, InstructionExecutor {
 	
 	/**
 	 * No-arg constructor.
@@ -39,6 +40,11 @@ public abstract class AbstractRedcodeInstruction implements RedcodeInstruction {
 	 */
 	public abstract void exec(WarriorProcess process, RVM rvm);
 	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.InstructionExecutor#exec(int, com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 */
+	public abstract void exec(int instruction, WarriorProcess process, RVM rvm);
+	
 	/**
 	 * Create the object code instruction from the fields of each instruction
 	 * format. <p>
@@ -4,13 +4,10 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.StringTokenizer;
 
 /**
  * The Assembler class is responsible for loading the Redcode program (aka warrior) 
@@ -25,9 +22,11 @@ import java.util.StringTokenizer;
 public class Assembler {
 	
 	private List<Integer> program;	// the binary program image
+	private List<Integer> instructions;	// read-only view of the program
+	private int image[];			// the program image as words, once built
 	
-	// The mnemonic table, used for looking up instruction names.
-	private Map<Integer, String> mtable;
+	// The dispatch table, shared by every assembler.
+	private InstructionTable table;
 	
 	/**
 	 * No-arg constructor.
@@ -35,9 +34,9 @@ public class Assembler {
 	public Assembler() {
 		// Instantiate the program image, an array of RedcodeInstruction objects.
 		program = new ArrayList<Integer>();
+		instructions = Collections.unmodifiableList(program);
 		
-		mtable = new HashMap<Integer, String>();
-		loadMnemonicTable();
+		table = InstructionTable.getDefault();
 	}
 	
 	/**
@@ -56,12 +55,33 @@ public class Assembler {
 	 * of <tt>Integer</tt> objects containing the 32-bit word Redcode instructions
 	 * encoded by the assembler. This instruction set is to be loaded into
 	 * the RVM memory in contiguous memory, and must fit without overlapping other
-	 * warriors or without falling off the end of the RVM's memory.
+	 * warriors or without falling off the end of the RVM's memory. The list
+	 * is read-only, and changes only as the assembler loads more.
 	 * 
 	 * @return a <tt>List</tt> containing the Redcode instruction set. 
 	 */
 	public List<Integer> getInstructions() {
-		return program;
+		return instructions;
+	}
+	
+	/**
+	 * Returns the Redcode instruction set as a new array of 32-bit words,
+	 * which the caller is free to modify. The words are unboxed once, on
+	 * first request, and each call copies them in bulk. An RVM takes a 
+	 * copy of its own the first time the program is loaded or forked, and
+	 * copies that into memory in bulk from then on.
+	 * 
+	 * @return the program image.
+	 */
+	public int[] getImage() {
+		if (image == null) {
+			int words[] = new int[program.size()];
+			for (int i = 0; i < words.length; i++) {
+				words[i] = program.get(i);
+			}
+			image = words;
+		}
+		return image.clone();
 	}
 	
 	/**
@@ -72,11 +92,9 @@ public class Assembler {
 	 * exactly which instruction we're working with, and that can be derived
 	 * from the <code>op</code> and the <code>funct</code> fields. There is 
 	 * a special case when <code>op</code> is 1, in which case we'll have to
-	 * look at the <code>rt</code> field as well. Using these fields, we'll
-	 * build a 32-bit word which will act as the key into the mnemonic table
-	 * loaded when the app is launched, and retrieve the instruction name.
-	 * From there, a new instruction object can be instantiated and
-	 * populated.
+	 * look at the <code>rt</code> field as well. Using these fields, the
+	 * shared dispatch table locates the instruction
+	 * and a new instruction object is created and populated.
 	 * 
 	 * @param instruction the 32-bit word instruction just fetched.
 	 * @return the instruction object, or <code>null</code> if it doesn't
@@ -85,57 +103,25 @@ public class Assembler {
 	 */
 	public RedcodeInstruction getRedcodeInstruction(Integer instruction) throws BadInstructionException {
 		
-		// Extract the 'op' field. We'll use this field to figure out
-		// how to build the hash key.
-		int ins = instruction >> 26;
-		
-		// If the 'op' field wasn't used in this instruction, use 'funct'.
-		// If the 'op' field is equal to 1, this is the special case
-		// of the 'bgez' and 'bltz' instructions which use the 'rt'
-		// field in addition to 'op'. If 'op' is any value other than 1 or 
-		// 0, we'll use 'op'.
-		switch (ins) {
-			case 0:
-				// Use the 'funct' field and zero out the
-				// high-order 26 bits.
-				ins = instruction & 0x3f;
-				break;
-			case 1:
-				// The 'bgez' and 'bltz' special cases.
-				ins <<= 10;
-				int spec = instruction >> 16;
-				spec = spec & 0x1f;
-				ins |= spec;
-				ins <<= 16;
-				break;
-			default:
-				// Use the 'op' field and zero out the
-				// low-order 26 bits.
-				ins = instruction & 0xfc000000;
-				break;
-		}
-		
-		// Get the instruction name from the mnemonic table
-		String name = mtable.get(ins);
-
-		if (name == null) {
-			// no such instruction exists
-			return null;
-		}
-		
-		// Convert the instruction name to a (hopefully) valid class name.
-		name = getClass(name);
-		
-		// Create a new instruction object.
-		RedcodeInstruction rci = instantiateRedcodeInstruction(name);
-
-		// Now decode the instruction.
-		rci.decode(instruction);
-		
-		return rci;
+		// The dispatch table folds the 'op', 'funct' and 'rt' fields into
+		// an index and hands back a new, decoded instruction object, or
+		// null if no such instruction exists.
+		return table.create(instruction);
 		
 	}
 	
+	/**
+	 * Returns the shared executor for the 32-bit word passed to the method,
+	 * or <code>null</code> if no such instruction exists. Unlike
+	 * <code>getRedcodeInstruction()</code>, no instruction object is created.
+	 * 
+	 * @param instruction the 32-bit word instruction just fetched.
+	 * @return the executor, or <code>null</code> if it doesn't exist.
+	 */
+	public InstructionExecutor getExecutor(int instruction) {
+		return table.getExecutor(instruction);
+	}
+	
 	/**
 	 * Loads the specified Redcode assembly language file (the warrior) and
 	 * processes it into 32-bit word instructions. Instructions are loaded
@@ -177,17 +163,15 @@ public class Assembler {
 				return;
 			}
 			
-			// Convert the instruction name to a (hopefully) valid class name.
-			strToken = getClass(strToken);
-			
 			// Create a new instruction object.
-			RedcodeInstruction rci = instantiateRedcodeInstruction(strToken);
+			RedcodeInstruction rci = InstructionTable.create(strToken);
 			
 			// Encode instruction into a 32-bit word.
 			Integer word = rci.encode(lexer);
 			
 			// Add the instruction to the array.
 			program.add(word);
+			image = null;
 			
 		}
 		
@@ -218,149 +202,20 @@ public class Assembler {
 				return;
 			}
 			
-			// Convert the instruction name to a (hopefully) valid class name.
-			strToken = getClass(strToken);
-			
 			// Create a new instruction object.
-			RedcodeInstruction rci = instantiateRedcodeInstruction(strToken);
+			RedcodeInstruction rci = InstructionTable.create(strToken);
 			
 			// Encode instruction into a 32-bit word.
 			Integer word = rci.encode(lexer);
 			
 			// Add the instruction to the array.
 			program.add(word);
+			image = null;
 			
 		}
 		
 	}
 	
-	/**
-	 * This method loads the mnemonic table, which is made up of the 
-	 * instruction, the instruction format, the opcode, and the <code>funct</code>.
-	 * or <code>rt</code> code. The resultant table is returned to the calling method.
-	 * 
-	 * @return the mnemonic table.
-	 * @throws IllegalArgumentException If the opcode or alt fall outside the acceptable
-	 * range of 0 to 63.
-	 */
-	private void loadMnemonicTable() {
-		
-		// The master mnemonic table. Must live in project root.
-		File file = new File("mnemonic.tbl");
-		
-		// Open the mnemonic table file.
-		BufferedReader buf = null;
-		
-		// Parse the file and load the mnemonic table.
-		String input = null;
-		try {
-			
-			buf = new BufferedReader(new FileReader(file));
-
-			while ((input = buf.readLine()) != null) {
-				
-				// Tokenize the current input line.
-				StringTokenizer st = new StringTokenizer(input);
-				
-				while (st.hasMoreTokens()) {
-					
-					// Get the instruction.
-					String m = st.nextToken();
-					m = m.toLowerCase();
-					
-					// Get the opcode and verify it is within the correct
-					// range of 0 to 63 (2^6).
-					String op = st.nextToken();
-					int o = Integer.parseInt(op);
-					if (o < 0 || o > 63) {
-						buf.close();
-						throw new IllegalArgumentException("Opcode out of range: '" + o + "'.");
-					}
-					
-					// Get the alt (funct/rt) and verify if is within the correct
-					// range of 0 to 63 (2^6).
-					String funct = st.nextToken();
-					int a = Integer.parseInt(funct);
-					if (a < 0 || a > 63) {
-						buf.close();
-						throw new IllegalArgumentException("Funct/rt out of range: '" + a + "'.");
-					}
-					
-					int key = 0;
-					
-					key |= o;
-					
-					if (o == 1) {
-						key <<= 10;
-						key |= (a & 0x1f);
-						key <<= 16;
-					} else {
-						key <<= 26;
-						key |= a;
-					}
-					
-					// Add to the mnemonic table.
-					mtable.put(key, m);
-					
-				}
-				
-			}
-			
-			buf.close();
-			
-		} catch (IOException e) {
-			
-			System.err.println("ERROR: " + e.getMessage());
-			System.exit(1);
-			
-		} 
-		
-	}
-	
-	/**
-	 * Creates the fully-qualified class name so that it can be dynamically
-	 * instantiated to create the instruction object. To be fully-qualified,
-	 * the package name must be prepended to the instruction name.
-	 * 
-	 * @param name the instruction name.
-	 * @return the fully-qualified class name.
-	 */
-	private String getClass(String name) {
-		// Convert the instruction name to a (hopefully) valid class name.
-		// First, convert instruction to lowercase to assure consistency.
-		// Then, convert the first character to uppercase and finally prepend
-		// the package name.
-		name = name.toLowerCase();
-		String firstChar = name.substring(0, 1).toUpperCase();
-		name = firstChar + name.substring(1);
-		name = this.getClass().getPackage().getName() + ".instruction." + name;
-		
-		return name;
-	}
-	
-	/**
-	 * Instantiates an instruction object based on the fully-qualified instruction
-	 * name passed to the method.
-	 * 
-	 * @param instruction the fully-qualified instruction name.
-	 * @return the instruction object.
-	 * @throws BadInstructionException If a bad instruction is encountered.
-	 */
-	private RedcodeInstruction instantiateRedcodeInstruction(String instruction) throws BadInstructionException {
-		// Attempt to instantiate the instruction object!
-		RedcodeInstruction rci = null;
-		try {
-			rci = (RedcodeInstruction)Class.forName(instruction).newInstance();
-		} catch (ClassNotFoundException e) {
-			throw new BadInstructionException("Invalid instruction encountered. No such class exists: " + instruction);
-		} catch (IllegalAccessException e) {
-			throw new BadInstructionException("Invalid instruction encountered. Illegal access: " + e.getMessage());
-		} catch (InstantiationException e) {
-			throw new BadInstructionException("Invalid instruction encountered. Instantiation error: " + e.getMessage());			
-		}
-		return rci;
-	}
-
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
@@ -1,5 +1,8 @@
 package com.michaelzanussi.redcode;
 
+import com.michaelzanussi.redcode.rvm.RVM;
+import com.michaelzanussi.redcode.rvm.WarriorProcess;
+
 /**
  * The I-format instruction type (transfer, branch, immediate format) is one of the 
  * four base classes for the Redcode instruction set. <p>
@@ -60,6 +63,14 @@ public abstract class IFormat extends AbstractRedcodeInstruction {
 		
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 */
+	public void exec(WarriorProcess process, RVM rvm) {
+		// Execute the instruction this object was decoded from.
+		exec(instruction, process, rvm);
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
@@ -97,7 +108,8 @@ public abstract class IFormat extends AbstractRedcodeInstruction {
 	}
 
 	// Bit masks used exclusively by the I-format createInstruction(), 
-	// breakupInstruction() and breakupInstructionUnsigned() methods.
+	// breakupInstruction(), breakupInstructionUnsigned() and field
+	// accessor methods.
 	// FLAG5 gives the 5 low-order bits, FLAG6 gives the 6 low-order,
 	// and FLAG16 gives the 16 low-order bits.
 	protected static final int FLAG5 = 0x1f;
@@ -152,6 +164,48 @@ public abstract class IFormat extends AbstractRedcodeInstruction {
 		
 	}
 	
+	/**
+	 * Returns the <code>rs</code> field of a 32-bit word instruction.
+	 * 
+	 * @param instruction the 32-bit word instruction.
+	 * @return the source register.
+	 */
+	protected static int rs(int instruction) {
+		return (instruction >>> 21) & FLAG5;
+	}
+	
+	/**
+	 * Returns the <code>rt</code> field of a 32-bit word instruction.
+	 * 
+	 * @param instruction the 32-bit word instruction.
+	 * @return the (normally) source register.
+	 */
+	protected static int rt(int instruction) {
+		return (instruction >>> 16) & FLAG5;
+	}
+	
+	/**
+	 * Returns the address/immediate value of a 32-bit word instruction
+	 * as a signed value (sign-extended).
+	 * 
+	 * @param instruction the 32-bit word instruction.
+	 * @return the address/immediate value.
+	 */
+	protected static int immediate(int instruction) {
+		return (short)instruction;
+	}
+	
+	/**
+	 * Returns the address/immediate value of a 32-bit word instruction
+	 * as an unsigned value (zero-extended).
+	 * 
+	 * @param instruction the 32-bit word instruction.
+	 * @return the address/immediate value.
+	 */
+	protected static int immediateUnsigned(int instruction) {
+		return instruction & FLAG16;
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#createInstruction()
 	 */
@@ -0,0 +1,28 @@
+package com.michaelzanussi.redcode;
+
+import com.michaelzanussi.redcode.rvm.RVM;
+import com.michaelzanussi.redcode.rvm.WarriorProcess;
+
+/**
+ * The execution contract for Redcode instructions run by the RVM. Unlike
+ * <code>RedcodeInstruction.exec()</code>, which executes the fields decoded
+ * into an instruction object, an executor extracts the fields it needs
+ * straight from the 32-bit word. Executors hold no state, so a single
+ * shared executor serves every occurrence of an instruction and the
+ * interpreter loop need not create an object per instruction executed.
+ *
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public interface InstructionExecutor {
+
+	/**
+	 * Execute the specified 32-bit word instruction.
+	 *
+	 * @param instruction the 32-bit word instruction to execute.
+	 * @param process the WarriorProcess (register access)
+	 * @param rvm the RVM (memory access)
+	 */
+	public void exec(int instruction, WarriorProcess process, RVM rvm);
+
+}
@@ -0,0 +1,484 @@
+package com.michaelzanussi.redcode;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.function.Supplier;
+
+import com.michaelzanussi.redcode.instruction.Add;
+import com.michaelzanussi.redcode.instruction.Addi;
+import com.michaelzanussi.redcode.instruction.Addiu;
+import com.michaelzanussi.redcode.instruction.Addu;
+import com.michaelzanussi.redcode.instruction.And;
+import com.michaelzanussi.redcode.instruction.Andi;
+import com.michaelzanussi.redcode.instruction.Beq;
+import com.michaelzanussi.redcode.instruction.Bgez;
+import com.michaelzanussi.redcode.instruction.Bgtz;
+import com.michaelzanussi.redcode.instruction.Blez;
+import com.michaelzanussi.redcode.instruction.Bltz;
+import com.michaelzanussi.redcode.instruction.Bne;
+import com.michaelzanussi.redcode.instruction.Close;
+import com.michaelzanussi.redcode.instruction.Divu;
+import com.michaelzanussi.redcode.instruction.Frk;
+import com.michaelzanussi.redcode.instruction.Hlt;
+import com.michaelzanussi.redcode.instruction.J;
+import com.michaelzanussi.redcode.instruction.Jr;
+import com.michaelzanussi.redcode.instruction.Lw;
+import com.michaelzanussi.redcode.instruction.Mfhi;
+import com.michaelzanussi.redcode.instruction.Mflo;
+import com.michaelzanussi.redcode.instruction.Mfpc;
+import com.michaelzanussi.redcode.instruction.Mult;
+import com.michaelzanussi.redcode.instruction.Nor;
+import com.michaelzanussi.redcode.instruction.Open;
+import com.michaelzanussi.redcode.instruction.Or;
+import com.michaelzanussi.redcode.instruction.Ori;
+import com.michaelzanussi.redcode.instruction.Rfrk;
+import com.michaelzanussi.redcode.instruction.Rsw;
+import com.michaelzanussi.redcode.instruction.Sll;
+import com.michaelzanussi.redcode.instruction.Sllv;
+import com.michaelzanussi.redcode.instruction.Slt;
+import com.michaelzanussi.redcode.instruction.Slti;
+import com.michaelzanussi.redcode.instruction.Sltiu;
+import com.michaelzanussi.redcode.instruction.Sltu;
+import com.michaelzanussi.redcode.instruction.Sra;
+import com.michaelzanussi.redcode.instruction.Srav;
+import com.michaelzanussi.redcode.instruction.Srl;
+import com.michaelzanussi.redcode.instruction.Srlv;
+import com.michaelzanussi.redcode.instruction.Sub;
+import com.michaelzanussi.redcode.instruction.Subu;
+import com.michaelzanussi.redcode.instruction.Sw;
+import com.michaelzanussi.redcode.instruction.Syscall;
+import com.michaelzanussi.redcode.instruction.Xor;
+import com.michaelzanussi.redcode.instruction.Xori;
+
+/**
+ * The instruction dispatch table. Every Redcode instruction is identified by
+ * its <code>op</code> field, by <code>funct</code> when <code>op</code> is 0,
+ * or by <code>rt</code> when <code>op</code> is 1 (the <tt>bgez</tt> and
+ * <tt>bltz</tt> special cases). These fields are folded into a dense index
+ * of <code>SIZE</code> slots, so the instruction for any 32-bit word can be
+ * found with a couple of shifts and an array access rather than a string
+ * lookup and reflective instantiation. <p>
+ *
+ * The table is populated from the mnemonic table: each mnemonic key is mapped
+ * to the slot for its index and bound to the constructor of the instruction
+ * class of the same name, and to a shared instance of that class which
+ * serves as the instruction's stateless executor. <p>
+ *
+ * Tables are immutable once built. The default table, built from the
+ * <tt>mnemonic.tbl</tt> resource bundled with this package, is loaded once
+ * per JVM and shared by every <tt>Assembler</tt> and RVM. Where the resource
+ * has not been copied onto the classpath, the table is read from the working
+ * directory or, failing that, from a copy of the standard table built into
+ * this class.
+ *
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class InstructionTable {
+
+	/**
+	 * The number of slots in the table: 64 <code>funct</code> codes, 32
+	 * <code>rt</code> codes and 64 <code>op</code> codes.
+	 */
+	public static final int SIZE = 160;
+
+	// Base index of the op == 1 (rt) and op > 1 (op) slots.
+	private static final int RT_BASE = 64;
+	private static final int OP_BASE = 96;
+
+	// The constructors of the Redcode instruction classes, by name.
+	private static final Map<String, Supplier<RedcodeInstruction>> CLASSES;
+
+	static {
+		CLASSES = new HashMap<String, Supplier<RedcodeInstruction>>();
+		CLASSES.put("add", Add::new);
+		CLASSES.put("addi", Addi::new);
+		CLASSES.put("addiu", Addiu::new);
+		CLASSES.put("addu", Addu::new);
+		CLASSES.put("and", And::new);
+		CLASSES.put("andi", Andi::new);
+		CLASSES.put("beq", Beq::new);
+		CLASSES.put("bgez", Bgez::new);
+		CLASSES.put("bgtz", Bgtz::new);
+		CLASSES.put("blez", Blez::new);
+		CLASSES.put("bltz", Bltz::new);
+		CLASSES.put("bne", Bne::new);
+		CLASSES.put("close", Close::new);
+		CLASSES.put("divu", Divu::new);
+		CLASSES.put("frk", Frk::new);
+		CLASSES.put("hlt", Hlt::new);
+		CLASSES.put("j", J::new);
+		CLASSES.put("jr", Jr::new);
+		CLASSES.put("lw", Lw::new);
+		CLASSES.put("mfhi", Mfhi::new);
+		CLASSES.put("mflo", Mflo::new);
+		CLASSES.put("mfpc", Mfpc::new);
+		CLASSES.put("mult", Mult::new);
+		CLASSES.put("nor", Nor::new);
+		CLASSES.put("open", Open::new);
+		CLASSES.put("or", Or::new);
+		CLASSES.put("ori", Ori::new);
+		CLASSES.put("rfrk", Rfrk::new);
+		CLASSES.put("rsw", Rsw::new);
+		CLASSES.put("sll", Sll::new);
+		CLASSES.put("sllv", Sllv::new);
+		CLASSES.put("slt", Slt::new);
+		CLASSES.put("slti", Slti::new);
+		CLASSES.put("sltiu", Sltiu::new);
+		CLASSES.put("sltu", Sltu::new);
+		CLASSES.put("sra", Sra::new);
+		CLASSES.put("srav", Srav::new);
+		CLASSES.put("srl", Srl::new);
+		CLASSES.put("srlv", Srlv::new);
+		CLASSES.put("sub", Sub::new);
+		CLASSES.put("subu", Subu::new);
+		CLASSES.put("sw", Sw::new);
+		CLASSES.put("syscall", Syscall::new);
+		CLASSES.put("xor", Xor::new);
+		CLASSES.put("xori", Xori::new);
+	}
+
+	// The shared executor for each Redcode instruction, by name. Executors
+	// hold no state, so one instance serves every table.
+	private static final Map<String, InstructionExecutor> EXECUTORS;
+
+	static {
+		EXECUTORS = new HashMap<String, InstructionExecutor>();
+		for (Map.Entry<String, Supplier<RedcodeInstruction>> entry : CLASSES.entrySet()) {
+			EXECUTORS.put(entry.getKey(), (InstructionExecutor)entry.getValue().get());
+		}
+	}
+
+	// The name of the mnemonic table resource.
+	private static final String MNEMONIC_TABLE = "mnemonic.tbl";
+
+	// The standard mnemonic table, used when no mnemonic.tbl can be found.
+	private static final String STANDARD_TABLE =
+		  "sll 0 0\n"
+		+ "bltz 1 0\n"
+		+ "bgez 1 1\n"
+		+ "j 2 0\n"
+		+ "beq 4 0\n"
+		+ "bne 5 0\n"
+		+ "blez 6 0\n"
+		+ "bgtz 7 0\n"
+		+ "addi 8 0\n"
+		+ "addiu 9 0\n"
+		+ "slti 10 0\n"
+		+ "sltiu 11 0\n"
+		+ "andi 12 0\n"
+		+ "ori 13 0\n"
+		+ "xori 14 0\n"
+		+ "frk 32 0\n"
+		+ "close 33 0\n"
+		+ "rfrk 34 0\n"
+		+ "lw 35 0\n"
+		+ "open 36 0\n"
+		+ "rsw 37 0\n"
+		+ "sw 43 0\n"
+		+ "srl 0 2\n"
+		+ "sra 0 3\n"
+		+ "sllv 0 4\n"
+		+ "srlv 0 6\n"
+		+ "srav 0 7\n"
+		+ "jr 0 8\n"
+		+ "syscall 0 12\n"
+		+ "hlt 0 13\n"
+		+ "mfhi 0 16\n"
+		+ "mflo 0 18\n"
+		+ "mfpc 0 19\n"
+		+ "mult 0 24\n"
+		+ "divu 0 27\n"
+		+ "add 0 32\n"
+		+ "addu 0 33\n"
+		+ "sub 0 34\n"
+		+ "subu 0 35\n"
+		+ "and 0 36\n"
+		+ "or 0 37\n"
+		+ "xor 0 38\n"
+		+ "nor 0 39\n"
+		+ "slt 0 42\n"
+		+ "sltu 0 43\n";
+
+	private String names[];								// instruction names, by index
+	private Supplier<RedcodeInstruction> factories[];	// instruction constructors, by index
+	private InstructionExecutor executors[];			// shared executors, by index
+
+	/**
+	 * Builds the dispatch table from the mnemonic table, which maps the
+	 * mnemonic key of each instruction to its name.
+	 *
+	 * @param mtable the mnemonic table.
+	 * @throws IllegalArgumentException If the mnemonic table names an
+	 * instruction for which no class exists.
+	 */
+	public InstructionTable(Map<Integer, String> mtable) {
+
+		// Arrays of a generic type can only be created raw.
+		@SuppressWarnings({"rawtypes", "unchecked"})
+		Supplier<RedcodeInstruction> suppliers[] = new Supplier[SIZE];
+
+		names = new String[SIZE];
+		factories = suppliers;
+		executors = new InstructionExecutor[SIZE];
+
+		for (Map.Entry<Integer, String> entry : mtable.entrySet()) {
+			String name = entry.getValue().toLowerCase();
+			Supplier<RedcodeInstruction> factory = CLASSES.get(name);
+			if (factory == null) {
+				throw new IllegalArgumentException("No such instruction class exists: '" + name + "'.");
+			}
+			int idx = index(entry.getKey());
+			names[idx] = name;
+			factories[idx] = factory;
+			executors[idx] = EXECUTORS.get(name);
+		}
+
+	}
+
+	/**
+	 * Returns the default dispatch table, built from the mnemonic table
+	 * bundled with this package. The table is loaded on first use.
+	 *
+	 * @return the default dispatch table.
+	 * @throws IllegalStateException If the mnemonic table cannot be loaded.
+	 */
+	public static InstructionTable getDefault() {
+		if (DefaultTable.TABLE == null) {
+			throw new IllegalStateException("Unable to load the mnemonic table: " + DefaultTable.FAILURE.getMessage(), DefaultTable.FAILURE);
+		}
+		return DefaultTable.TABLE;
+	}
+
+	/**
+	 * Holds the default table, so that it is loaded exactly once, on first
+	 * use, without explicit synchronization. A table which fails to load
+	 * is remembered, so that every caller sees the same failure rather
+	 * than the first an <tt>ExceptionInInitializerError</tt> and the rest
+	 * a <tt>NoClassDefFoundError</tt>.
+	 */
+	private static class DefaultTable {
+
+		private static final InstructionTable TABLE;	// the default table, or null
+		private static final Exception FAILURE;		// why the table failed to load
+
+		static {
+			InstructionTable table = null;
+			Exception failure = null;
+			try {
+				table = new InstructionTable(loadMnemonicTable());
+			} catch (IOException e) {
+				failure = e;
+			} catch (RuntimeException e) {
+				failure = e;
+			}
+			TABLE = table;
+			FAILURE = failure;
+		}
+
+	}
+
+	/**
+	 * This method loads the mnemonic table, which is made up of the 
+	 * instruction, the opcode, and the <code>funct</code> or <code>rt</code>
+	 * code. The table is read from the <tt>mnemonic.tbl</tt> resource on the
+	 * classpath, failing that from <tt>mnemonic.tbl</tt> in the working
+	 * directory and, failing both, from the copy of the standard table 
+	 * built into this class. The resultant table is returned to the 
+	 * calling method.
+	 * 
+	 * @return the mnemonic table.
+	 * @throws IOException If the mnemonic table cannot be read.
+	 * @throws IllegalArgumentException If the opcode or alt fall outside the acceptable
+	 * range of 0 to 63.
+	 */
+	private static Map<Integer, String> loadMnemonicTable() throws IOException {
+		
+		// Open the mnemonic table.
+		Reader in;
+		InputStream resource = InstructionTable.class.getResourceAsStream(MNEMONIC_TABLE);
+		File file = new File(MNEMONIC_TABLE);
+		if (resource != null) {
+			in = new InputStreamReader(resource, "US-ASCII");
+		} else if (file.isFile()) {
+			in = new InputStreamReader(new FileInputStream(file), "US-ASCII");
+		} else {
+			in = new StringReader(STANDARD_TABLE);
+		}
+		
+		BufferedReader buf = new BufferedReader(in);
+		try {
+			return parseMnemonicTable(buf);
+		} finally {
+			buf.close();
+		}
+		
+	}
+	
+	/**
+	 * Parses the mnemonic table read by the reader passed to the method.
+	 * 
+	 * @param buf the reader.
+	 * @return the mnemonic table.
+	 * @throws IOException If the mnemonic table cannot be read.
+	 * @throws IllegalArgumentException If the opcode or alt fall outside the acceptable
+	 * range of 0 to 63.
+	 */
+	private static Map<Integer, String> parseMnemonicTable(BufferedReader buf) throws IOException {
+		
+		Map<Integer, String> mtable = new HashMap<Integer, String>();
+		
+		// Parse the file and load the mnemonic table.
+		String input = null;
+		while ((input = buf.readLine()) != null) {
+			
+			// Tokenize the current input line.
+			StringTokenizer st = new StringTokenizer(input);
+			
+			while (st.hasMoreTokens()) {
+				
+				// Get the instruction.
+				String m = st.nextToken();
+				m = m.toLowerCase();
+				
+				// Get the opcode and verify it is within the correct
+				// range of 0 to 63 (2^6).
+				String op = st.nextToken();
+				int o = Integer.parseInt(op);
+				if (o < 0 || o > 63) {
+					throw new IllegalArgumentException("Opcode out of range: '" + o + "'.");
+				}
+				
+				// Get the alt (funct/rt) and verify if is within the correct
+				// range of 0 to 63 (2^6).
+				String funct = st.nextToken();
+				int a = Integer.parseInt(funct);
+				if (a < 0 || a > 63) {
+					throw new IllegalArgumentException("Funct/rt out of range: '" + a + "'.");
+				}
+				
+				int key = 0;
+				
+				key |= o;
+				
+				if (o == 1) {
+					key <<= 10;
+					key |= (a & 0x1f);
+					key <<= 16;
+				} else {
+					key <<= 26;
+					key |= a;
+				}
+				
+				// Add to the mnemonic table.
+				mtable.put(key, m);
+				
+			}
+			
+		}
+		
+		return mtable;
+		
+	}
+
+	/**
+	 * Returns the dispatch table index of the 32-bit word passed to the
+	 * method. A mnemonic key is itself a 32-bit word with only the
+	 * identifying fields set, so it maps to the same index as any
+	 * instruction it describes.
+	 *
+	 * @param instruction the 32-bit word instruction.
+	 * @return the index, between 0 and <code>SIZE - 1</code>.
+	 */
+	public static int index(int instruction) {
+		int op = instruction >>> 26;
+		switch (op) {
+			case 0:
+				// Use the 'funct' field.
+				return instruction & 0x3f;
+			case 1:
+				// The 'bgez' and 'bltz' special cases use 'rt'.
+				return RT_BASE + ((instruction >>> 16) & 0x1f);
+			default:
+				return OP_BASE + op;
+		}
+	}
+
+	/**
+	 * Returns the name of the instruction for the 32-bit word passed to
+	 * the method, or <code>null</code> if no such instruction exists.
+	 *
+	 * @param instruction the 32-bit word instruction.
+	 * @return the instruction name, or <code>null</code>.
+	 */
+	public String getName(int instruction) {
+		return names[index(instruction)];
+	}
+
+	/**
+	 * Returns the name of the instruction at the dispatch table index
+	 * passed to the method, or <code>null</code> if no such instruction
+	 * exists.
+	 *
+	 * @param index the index, between 0 and <code>SIZE - 1</code>.
+	 * @return the instruction name, or <code>null</code>.
+	 */
+	public String getNameAt(int index) {
+		return names[index];
+	}
+
+	/**
+	 * Returns a new, decoded instruction object for the 32-bit word passed
+	 * to the method, or <code>null</code> if no such instruction exists.
+	 *
+	 * @param instruction the 32-bit word instruction.
+	 * @return the instruction object, or <code>null</code>.
+	 */
+	public RedcodeInstruction create(int instruction) {
+		Supplier<RedcodeInstruction> factory = factories[index(instruction)];
+		if (factory == null) {
+			return null;
+		}
+		RedcodeInstruction rci = factory.get();
+		rci.decode(instruction);
+		return rci;
+	}
+
+	/**
+	 * Returns the shared executor for the 32-bit word passed to the method,
+	 * or <code>null</code> if no such instruction exists. No object is
+	 * created and the word need not be decoded first.
+	 *
+	 * @param instruction the 32-bit word instruction.
+	 * @return the executor, or <code>null</code>.
+	 */
+	public InstructionExecutor getExecutor(int instruction) {
+		return executors[index(instruction)];
+	}
+
+	/**
+	 * Returns a new, empty instruction object for the instruction name passed
+	 * to the method, ready to encode. Names are case insensitive.
+	 *
+	 * @param name the instruction name.
+	 * @return the instruction object.
+	 * @throws BadInstructionException If no such instruction exists.
+	 */
+	public static RedcodeInstruction create(String name) throws BadInstructionException {
+		Supplier<RedcodeInstruction> factory = CLASSES.get(name.toLowerCase());
+		if (factory == null) {
+			throw new BadInstructionException("Invalid instruction encountered. No such instruction exists: " + name);
+		}
+		return factory.get();
+	}
+
+}
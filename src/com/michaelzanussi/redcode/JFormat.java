@@ -1,5 +1,8 @@
 package com.michaelzanussi.redcode;
 
+import com.michaelzanussi.redcode.rvm.RVM;
+import com.michaelzanussi.redcode.rvm.WarriorProcess;
+
 /**
  * The J-format instruction type (jump instruction format) is one of the 
  * four base classes for the Redcode instruction set. <p>
@@ -47,6 +50,14 @@ public abstract class JFormat extends AbstractRedcodeInstruction {
 		
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 */
+	public void exec(WarriorProcess process, RVM rvm) {
+		// Execute the instruction this object was decoded from.
+		exec(instruction, process, rvm);
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
@@ -106,6 +117,17 @@ public abstract class JFormat extends AbstractRedcodeInstruction {
 		
 	}
 
+	/**
+	 * Returns the target address of a 32-bit word instruction, 
+	 * sign-extended from 26 bits.
+	 * 
+	 * @param instruction the 32-bit word instruction.
+	 * @return the target address.
+	 */
+	protected static int target(int instruction) {
+		return (instruction << 6) >> 6;
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#createInstruction()
 	 */
@@ -1,5 +1,8 @@
 package com.michaelzanussi.redcode;
 
+import com.michaelzanussi.redcode.rvm.RVM;
+import com.michaelzanussi.redcode.rvm.WarriorProcess;
+
 /**
  * The R-format instruction type (arithmetic instruction format) is one of the three 
  * base classes for the Redcode instruction set. <p>
@@ -71,6 +74,14 @@ public abstract class RFormat extends AbstractRedcodeInstruction {
 		
 	} 
 	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 */
+	public void exec(WarriorProcess process, RVM rvm) {
+		// Execute the instruction this object was decoded from.
+		exec(instruction, process, rvm);
+	}
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
@@ -105,9 +116,9 @@ public abstract class RFormat extends AbstractRedcodeInstruction {
 		
 	}
 
-	// Bit masks used exclusively by the R-format createInstruction() and
-	// breakupInstruction() methods. FLAG5 gives the 5 low-order bits, FLAG6 
-	// gives the 6 low-order bits.
+	// Bit masks used exclusively by the R-format createInstruction(),
+	// breakupInstruction() and field accessor methods. FLAG5 gives the 
+	// 5 low-order bits, FLAG6 gives the 6 low-order bits.
 	private static final int FLAG5 = 0x1f;
 	private static final int FLAG6 = 0x3f;
 	
@@ -138,6 +149,46 @@ public abstract class RFormat extends AbstractRedcodeInstruction {
 		
 	}
 	
+	/**
+	 * Returns the <code>rs</code> field of a 32-bit word instruction.
+	 * 
+	 * @param instruction the 32-bit word instruction.
+	 * @return the source register.
+	 */
+	protected static int rs(int instruction) {
+		return (instruction >>> 21) & FLAG5;
+	}
+	
+	/**
+	 * Returns the <code>rt</code> field of a 32-bit word instruction.
+	 * 
+	 * @param instruction the 32-bit word instruction.
+	 * @return the (normally) source register.
+	 */
+	protected static int rt(int instruction) {
+		return (instruction >>> 16) & FLAG5;
+	}
+	
+	/**
+	 * Returns the <code>rd</code> field of a 32-bit word instruction.
+	 * 
+	 * @param instruction the 32-bit word instruction.
+	 * @return the destination register.
+	 */
+	protected static int rd(int instruction) {
+		return (instruction >>> 11) & FLAG5;
+	}
+	
+	/**
+	 * Returns the <code>shamt</code> field of a 32-bit word instruction.
+	 * 
+	 * @param instruction the 32-bit word instruction.
+	 * @return the shift amount.
+	 */
+	protected static int shamt(int instruction) {
+		return (instruction >>> 6) & FLAG5;
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#createInstruction()
 	 */
@@ -0,0 +1,149 @@
+package com.michaelzanussi.redcode.bench;
+
+import java.io.File;
+
+import com.michaelzanussi.redcode.Assembler;
+import com.michaelzanussi.redcode.rvm.FastRVM;
+import com.michaelzanussi.redcode.rvm.ProcessGroup;
+import com.michaelzanussi.redcode.rvm.RVM;
+import com.michaelzanussi.redcode.rvm.WarriorProcess;
+
+/**
+ * Checks that the interpreter loop (fetch, decode, execute and
+ * schedule) does not allocate. A battle is warmed up, so that the 
+ * decode cache is filled and the loop compiled, and then run for 
+ * several windows of a fixed number of steps while the bytes allocated 
+ * by the thread are measured. The JVM itself may allocate now and then
+ * on the thread, for instance when the JIT compiler replaces code, so
+ * a window may show a few bytes the loop did not allocate; allocation
+ * by the loop shows in every window. The check therefore fails, with
+ * an exit status of 1, if the bytes allocated per step in the least of
+ * the windows exceed the budget, by default zero. <p>
+ * 
+ * The warriors used never fork, since a fork must create a process.
+ * One is <tt>test/pingpong.war</tt>; the other runs a mix of 
+ * arithmetic, memory, branch and system call instructions. Both engines
+ * are checked. Run from the project directory, optionally giving the 
+ * budget in bytes per step.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class AllocationBudget {
+
+	// A warrior running a mix of instructions, forever.
+	private static final String MIX = 
+		"addiu $2, $0, 100\n" +
+		"addiu $3, $3, 7\n" +
+		"mult $3, $2\n" +
+		"mflo $4\n" +
+		"divu $4, $2\n" +
+		"mfhi $5\n" +
+		"sll $6, $5, 2\n" +
+		"xor $7, $6, $3\n" +
+		"sw $7, 40($2)\n" +
+		"lw $8, 40($2)\n" +
+		"slt $9, $8, $7\n" +
+		"addiu $1, $0, 1\n" +
+		"syscall\n" +
+		"addiu $1, $0, 8\n" +
+		"syscall\n" +
+		"bne $9, $0, 1\n" +
+		"mfpc $10\n" +
+		"beq $0, $0, -17";
+	
+	private static final int SIZE = 65535;
+	private static final int WARMUP = 1000000;	// steps before measuring
+	private static final int STEPS = 1000000;	// steps measured per window
+	private static final int WINDOWS = 5;		// windows measured
+	
+	/**
+	 * Run the check for one engine.
+	 * 
+	 * @param fast <code>true</code> to check the switch engine
+	 * @return the bytes allocated in each window
+	 * @throws Exception If the warriors cannot be loaded.
+	 */
+	private static long[] check(boolean fast) throws Exception {
+		
+		RVM rvm = (fast ? new FastRVM(SIZE) : new RVM(SIZE));
+		rvm.setSeed(1);
+		rvm.loadProgram(new File("test/pingpong.war"), 1);
+		
+		// Load the mix well away from pingpong's writes.
+		Assembler asm = new Assembler();
+		asm.load(MIX);
+		ProcessGroup pg = new ProcessGroup(2, rvm);
+		rvm.addProcessGroup(pg);
+		WarriorProcess process = new WarriorProcess(asm, pg);
+		int pc = rvm.getRandom().nextInt(SIZE - 1000);
+		while (rvm.getOwner(pc) != 0 || rvm.getOwner(pc + 100) != 0) {
+			pc = rvm.getRandom().nextInt(SIZE - 1000);
+		}
+		process.setPC(pc);
+		rvm.store(pc, asm, pg, process.getPID());
+		
+		for (int i = 0; i < WARMUP; i++) {
+			rvm.exec();
+		}
+		
+		com.sun.management.ThreadMXBean allocation = Benchmark.allocation();
+		long thread = Thread.currentThread().getId();
+		
+		// Reading the allocation may itself allocate.
+		long before = allocation.getThreadAllocatedBytes(thread);
+		long overhead = allocation.getThreadAllocatedBytes(thread) - before;
+		
+		long bytes[] = new long[WINDOWS];
+		for (int w = 0; w < WINDOWS; w++) {
+			before = allocation.getThreadAllocatedBytes(thread);
+			for (int i = 0; i < STEPS; i++) {
+				rvm.exec();
+			}
+			bytes[w] = allocation.getThreadAllocatedBytes(thread) - before - overhead;
+		}
+		
+		if (rvm.getNPG() != 2) {
+			throw new IllegalStateException("A warrior died; the steps measured are not representative");
+		}
+		
+		return bytes;
+		
+	}
+	
+	/**
+	 * Run the check.
+	 * 
+	 * @param args the budget in bytes per step, if not zero
+	 * @throws Exception If the warriors cannot be loaded.
+	 */
+	public static void main(String[] args) throws Exception {
+		
+		double budget = (args.length > 0 ? Double.parseDouble(args[0]) : 0);
+		
+		if (Benchmark.allocation() == null) {
+			System.out.println("This JVM cannot measure the allocation of a thread");
+			System.exit(2);
+		}
+		
+		boolean passed = true;
+		for (boolean fast : new boolean[] { false, true }) {
+			long bytes[] = check(fast);
+			long least = bytes[0];
+			StringBuilder windows = new StringBuilder();
+			for (long b : bytes) {
+				least = Math.min(least, b);
+				windows.append(' ').append(b);
+			}
+			double perStep = (double)least / STEPS;
+			boolean ok = perStep <= budget;
+			System.out.println(String.format("%-8s %10d B in %d steps, %.6f B/step (budget %.3f)  %s   windows:%s", 
+					(fast ? "FastRVM" : "RVM"), least, STEPS, perStep, budget, (ok ? "ok" : "OVER BUDGET"), windows));
+			passed &= ok;
+		}
+		
+		System.exit(passed ? 0 : 1);
+		
+	}
+	
+}
@@ -0,0 +1,187 @@
+package com.michaelzanussi.redcode.bench;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+import com.michaelzanussi.redcode.Assembler;
+import com.michaelzanussi.redcode.Lexer;
+import com.michaelzanussi.redcode.RedcodeInstruction;
+import com.michaelzanussi.redcode.RedcodeLexer;
+
+/**
+ * Measures the lexer, the assembler and the disassembler: tokens lexed
+ * per second, words assembled per second from a string and from a file,
+ * and instructions decoded per second, with the bytes allocated per 
+ * token or instruction. Each is measured on <tt>test/Big.war</tt>, on
+ * <tt>test/AllInstructions.war</tt>, and on a large program generated
+ * from the lines of <tt>AllInstructions.war</tt> by a seeded random
+ * number generator. Small inputs are processed repeatedly in each 
+ * iteration. <p>
+ * 
+ * Run from the project directory. See <tt>Report</tt> for the command 
+ * line options.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class AssemblerBenchmark extends Benchmark {
+
+	private static final String INPUTS[] = { "test/Big.war", "test/AllInstructions.war", null };
+	private static final int GENERATED = 200000;	// lines generated
+	private static final int LINES = 100000;		// least lines per iteration
+	
+	private static final int WARMUPS = 5;
+	private static final int ITERATIONS = 10;
+	
+	// What is measured.
+	private static final int LEX = 0;
+	private static final int LOAD_STRING = 1;
+	private static final int LOAD_FILE = 2;
+	private static final int DECODE = 3;
+	private static final String NAMES[] = { "lex", "load(String)", "load(File)", "decode" };
+	private static final String UNITS[] = { "token", "word", "word", "instr" };
+	
+	private int what;				// what is measured
+	private File file;				// the input file
+	private String source;			// the input
+	private int reps;				// times the input is processed per iteration
+	private List<Integer> words;	// the input, assembled
+	private Assembler asm;			// the disassembler
+	private long sink;				// keeps results from being optimized away
+	
+	/**
+	 * @param what what is measured
+	 * @param name the name of the input
+	 * @param file the input file
+	 * @throws Exception If the input cannot be read or assembled.
+	 */
+	private AssemblerBenchmark(int what, String name, File file) throws Exception {
+		
+		super(NAMES[what] + " " + name);
+		this.what = what;
+		this.file = file;
+		source = new String(Files.readAllBytes(file.toPath()), "US-ASCII");
+		
+		asm = new Assembler();
+		asm.load(source);
+		words = asm.getInstructions();
+		reps = Math.max(1, LINES / words.size());
+		
+	}
+	
+	/**
+	 * Returns the number of operations, tokens, words or instructions,
+	 * done by each iteration. They are counted untimed.
+	 * 
+	 * @return the number of operations
+	 */
+	private long count() {
+		if (what == LEX) {
+			long tokens = 0;
+			Lexer lexer = new RedcodeLexer(new StringReader(source));
+			while (lexer.hasMoreTokens()) {
+				lexer.nextToken();
+				tokens++;
+			}
+			return tokens * reps;
+		}
+		return (long)words.size() * reps;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.bench.Benchmark#run()
+	 */
+	protected void run() throws Exception {
+		for (int r = 0; r < reps; r++) {
+			switch (what) {
+			case LEX: {
+				Lexer lexer = new RedcodeLexer(new StringReader(source));
+				while (lexer.hasMoreTokens()) {
+					sink += lexer.nextToken().getToken().length();
+				}
+				break;
+			}
+			case LOAD_STRING: {
+				Assembler a = new Assembler();
+				a.load(source);
+				sink += a.getInstructions().size();
+				break;
+			}
+			case LOAD_FILE: {
+				Assembler a = new Assembler();
+				a.load(file);
+				sink += a.getInstructions().size();
+				break;
+			}
+			case DECODE:
+				for (int i = 0; i < words.size(); i++) {
+					RedcodeInstruction rci = asm.getRedcodeInstruction(words.get(i));
+					sink += (rci == null ? 0 : 1);
+				}
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Write the generated program to a temporary file.
+	 * 
+	 * @return the file
+	 * @throws IOException If the file cannot be written.
+	 */
+	private static File generate() throws IOException {
+		
+		List<String> lines = Files.readAllLines(new File("test/AllInstructions.war").toPath());
+		Random random = new Random(1);
+		
+		File file = File.createTempFile("generated", ".war");
+		file.deleteOnExit();
+		Writer out = new FileWriter(file);
+		try {
+			for (int i = 0; i < GENERATED; i++) {
+				out.write(lines.get(random.nextInt(lines.size())).trim());
+				out.write('\n');
+			}
+		} finally {
+			out.close();
+		}
+		return file;
+		
+	}
+	
+	/**
+	 * Run the benchmarks.
+	 * 
+	 * @param args the report options
+	 * @throws Exception If a benchmark fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		
+		Report report = new Report(AssemblerBenchmark.class, args);
+		
+		int n = 0;
+		for (String input : INPUTS) {
+			for (int what = LEX; what <= DECODE; what++) {
+				if (report.select(n++)) {
+					File file = (input == null ? generate() : new File(input));
+					String name = (input == null ? "generated" : file.getName());
+					AssemblerBenchmark b = new AssemblerBenchmark(what, name, file);
+					long ops = b.count();
+					Measurement m = b.measure(WARMUPS, ITERATIONS);
+					report.rate(b.getName(), UNITS[what] + "s/s", ops, m);
+					report.allocation(b.getName(), UNITS[what], ops, m);
+				}
+			}
+		}
+		
+		report.finish();
+		
+	}
+	
+}
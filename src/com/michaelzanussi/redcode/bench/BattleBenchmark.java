@@ -0,0 +1,133 @@
+package com.michaelzanussi.redcode.bench;
+
+import java.io.File;
+
+import com.michaelzanussi.redcode.rvm.BattleAdapter;
+import com.michaelzanussi.redcode.rvm.FastRVM;
+import com.michaelzanussi.redcode.rvm.RVM;
+import com.michaelzanussi.redcode.rvm.WarriorProcess;
+
+/**
+ * Measures the throughput of whole battles between the shipped warriors,
+ * in instructions and in cycles per second, for each engine, several
+ * memory sizes and several line-ups of players. Each iteration runs a
+ * round of battles, each seeded differently so that the programs are
+ * placed differently, but the same way every time; the instructions and
+ * cycles a round runs are counted once, untimed, before it is measured.
+ * <p>
+ * 
+ * Run from the project directory, where the warriors are found in
+ * <tt>test</tt>. See <tt>Report</tt> for the command line options.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class BattleBenchmark extends Benchmark {
+
+	private static final String LINEUPS[][] = {
+		{ "test/Chunky.war", "test/pingpong.war" },
+		{ "test/Chunky.war", "test/pingpong.war", "test/warrior3.war" },
+		{ "test/Chunky.war", "test/Random.war", "test/splat.war", "test/pingpong.war", "test/warrior3.war" }
+	};
+	private static final int SIZES[] = { 8000, 65535, 1 << 20 };
+	private static final int CYCLES = 20000;	// longest battle
+	private static final int ROUNDS = 10;		// battles per iteration
+	
+	private static final int WARMUPS = 5;
+	private static final int ITERATIONS = 10;
+	
+	private boolean fast;		// use the switch engine?
+	private int size;			// memory size
+	private String warriors[];	// the warriors, one per player
+	private RVM rvms[];			// the RVMs for the next iteration
+	
+	/**
+	 * @param fast <code>true</code> to use the switch engine
+	 * @param size the memory size
+	 * @param warriors the warriors, one per player
+	 */
+	public BattleBenchmark(boolean fast, int size, String warriors[]) {
+		super((fast ? "FastRVM" : "RVM") + " battle size=" + size + " players=" + warriors.length);
+		this.fast = fast;
+		this.size = size;
+		this.warriors = warriors;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.bench.Benchmark#setUp()
+	 */
+	protected void setUp() {
+		rvms = new RVM[ROUNDS];
+		for (int i = 0; i < ROUNDS; i++) {
+			rvms[i] = (fast ? new FastRVM(size) : new RVM(size));
+			rvms[i].setSeed(i);
+			for (int player = 1; player <= warriors.length; player++) {
+				rvms[i].loadProgram(new File(warriors[player - 1]), player);
+			}
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.bench.Benchmark#run()
+	 */
+	protected void run() {
+		for (RVM rvm : rvms) {
+			rvm.battle(CYCLES);
+		}
+	}
+	
+	/**
+	 * Run a round of battles, untimed, counting the instructions and 
+	 * cycles it runs.
+	 * 
+	 * @return the instructions and the cycles run
+	 */
+	private long[] count() {
+		final long counts[] = new long[2];
+		BattleAdapter counter = new BattleAdapter() {
+			public void stepped(WarriorProcess process, int loc, int instruction) {
+				counts[0]++;
+			}
+			public void cycleEnded(int cycle) {
+				counts[1]++;
+			}
+		};
+		setUp();
+		for (RVM rvm : rvms) {
+			rvm.addBattleListener(counter);
+		}
+		run();
+		return counts;
+	}
+	
+	/**
+	 * Run the benchmarks.
+	 * 
+	 * @param args the report options
+	 * @throws Exception If a benchmark fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		
+		Report report = new Report(BattleBenchmark.class, args);
+		
+		int n = 0;
+		for (int size : SIZES) {
+			for (String warriors[] : LINEUPS) {
+				for (boolean fast : new boolean[] { false, true }) {
+					if (report.select(n++)) {
+						BattleBenchmark b = new BattleBenchmark(fast, size, warriors);
+						long counts[] = b.count();
+						Measurement m = b.measure(WARMUPS, ITERATIONS);
+						report.rate(b.getName(), "instr/s", counts[0], m);
+						report.rate(b.getName(), "cycles/s", counts[1], m);
+						report.allocation(b.getName(), "instr", counts[0], m);
+					}
+				}
+			}
+		}
+		
+		report.finish();
+		
+	}
+	
+}
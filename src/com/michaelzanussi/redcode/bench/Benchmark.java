@@ -0,0 +1,114 @@
+package com.michaelzanussi.redcode.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * A benchmark: a piece of work timed over a number of iterations, after
+ * a number of warm-up iterations that give the JIT compiler time to 
+ * compile the code measured. Subclasses implement <code>run()</code>,
+ * one iteration of the work, and may implement <code>setUp()</code> 
+ * to prepare each iteration; set-up is not timed. The bytes allocated
+ * by each iteration are measured too, if the JVM supports measuring the
+ * allocation of a thread, as HotSpot does. <p>
+ * 
+ * For the results to be comparable from run to run, an iteration must
+ * do the same work every time; benchmarks of battles seed the RVM.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public abstract class Benchmark {
+
+	private String name;		// the benchmark name
+	
+	/**
+	 * @param name the benchmark name
+	 */
+	protected Benchmark(String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * @return the benchmark name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Prepare an iteration. The default does nothing.
+	 * 
+	 * @throws Exception If the iteration cannot be prepared.
+	 */
+	protected void setUp() throws Exception {
+		
+	}
+	
+	/**
+	 * Run one iteration of the work measured.
+	 * 
+	 * @throws Exception If the work fails.
+	 */
+	protected abstract void run() throws Exception;
+	
+	/**
+	 * Run the benchmark.
+	 * 
+	 * @param warmups the number of warm-up iterations, not timed
+	 * @param iterations the number of iterations timed
+	 * @return the measurements of each iteration timed
+	 * @throws Exception If the work fails.
+	 */
+	public Measurement measure(int warmups, int iterations) throws Exception {
+		
+		com.sun.management.ThreadMXBean allocation = allocation();
+		long thread = Thread.currentThread().getId();
+		
+		for (int i = 0; i < warmups; i++) {
+			setUp();
+			run();
+		}
+		
+		double seconds[] = new double[iterations];
+		long bytes[] = (allocation == null ? null : new long[iterations]);
+		for (int i = 0; i < iterations; i++) {
+			setUp();
+			
+			// Collect the garbage of earlier iterations now, rather
+			// than while timing this one.
+			System.gc();
+			
+			long allocated = (allocation == null ? 0 : allocation.getThreadAllocatedBytes(thread));
+			long start = System.nanoTime();
+			run();
+			seconds[i] = (System.nanoTime() - start) / 1e9;
+			if (allocation != null) {
+				bytes[i] = allocation.getThreadAllocatedBytes(thread) - allocated;
+			}
+		}
+		
+		return new Measurement(seconds, bytes);
+		
+	}
+	
+	/**
+	 * Returns the thread bean able to measure the allocation of a thread,
+	 * or <code>null</code> if the JVM has none.
+	 * 
+	 * @return the thread bean, or <code>null</code>
+	 */
+	static com.sun.management.ThreadMXBean allocation() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+			return null;
+		}
+		com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean)bean;
+		if (!allocation.isThreadAllocatedMemorySupported()) {
+			return null;
+		}
+		allocation.setThreadAllocatedMemoryEnabled(true);
+		return allocation;
+	}
+	
+}
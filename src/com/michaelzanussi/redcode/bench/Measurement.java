@@ -0,0 +1,40 @@
+package com.michaelzanussi.redcode.bench;
+
+/**
+ * The measurements of the iterations of a benchmark: the time each took
+ * and, where the JVM can tell, the bytes each allocated.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class Measurement {
+
+	private double seconds[];		// time taken, by iteration
+	private long bytes[];			// bytes allocated, by iteration, or null
+	
+	/**
+	 * @param seconds the time taken by each iteration
+	 * @param bytes the bytes allocated by each iteration, or 
+	 * <code>null</code> if unknown
+	 */
+	public Measurement(double seconds[], long bytes[]) {
+		this.seconds = seconds;
+		this.bytes = bytes;
+	}
+	
+	/**
+	 * @return the time taken by each iteration, in seconds
+	 */
+	public double[] getSeconds() {
+		return seconds;
+	}
+	
+	/**
+	 * @return the bytes allocated by each iteration, or <code>null</code>
+	 * if the JVM cannot measure allocation
+	 */
+	public long[] getAllocatedBytes() {
+		return bytes;
+	}
+	
+}
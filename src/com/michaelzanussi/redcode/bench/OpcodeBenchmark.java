@@ -0,0 +1,125 @@
+package com.michaelzanussi.redcode.bench;
+
+import com.michaelzanussi.redcode.Assembler;
+import com.michaelzanussi.redcode.InstructionExecutor;
+import com.michaelzanussi.redcode.InstructionTable;
+import com.michaelzanussi.redcode.rvm.ProcessGroup;
+import com.michaelzanussi.redcode.rvm.RVM;
+import com.michaelzanussi.redcode.rvm.WarriorProcess;
+
+/**
+ * Measures the execution rate of single instructions: the instruction's
+ * shared executor is run over and over on behalf of one process, whose
+ * registers are set so that every execution does the same kind of work.
+ * Before each execution, <tt>$3</tt> is set to a slightly different
+ * value, so that the compiler cannot compute the result once and skip
+ * the rest; the rates include this cost. <p>
+ * 
+ * See <tt>Report</tt> for the command line options.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class OpcodeBenchmark extends Benchmark {
+
+	// The program forked by frk.
+	private static final String PROGRAM = "addiu $1, $0, 1\nbeq $0, $0, -1";
+	
+	private static final int WARMUPS = 5;
+	private static final int ITERATIONS = 10;
+	
+	private int instruction;			// the 32-bit word executed
+	private InstructionExecutor executor;
+	private int registers[];			// the registers $1, $2 and $3
+	private int ops;					// executions per iteration
+	private RVM rvm;					// the RVM for the next iteration
+	private WarriorProcess process;		// the executing process
+	
+	/**
+	 * @param name the benchmark name
+	 * @param source the instruction, in Redcode assembly language
+	 * @param registers the values of the registers $1, $2 and $3
+	 * @param ops the number of executions per iteration
+	 * @throws Exception If the instruction cannot be assembled.
+	 */
+	public OpcodeBenchmark(String name, String source, int registers[], int ops) throws Exception {
+		super(name);
+		Assembler asm = new Assembler();
+		asm.load(source);
+		instruction = asm.getInstructions().get(0);
+		executor = InstructionTable.getDefault().getExecutor(instruction);
+		this.registers = registers;
+		this.ops = ops;
+	}
+	
+	/**
+	 * @return the number of executions per iteration
+	 */
+	public int getOps() {
+		return ops;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.bench.Benchmark#setUp()
+	 */
+	protected void setUp() throws Exception {
+		
+		rvm = new RVM();
+		rvm.setSeed(1);
+		ProcessGroup pg = new ProcessGroup(1, rvm);
+		rvm.addProcessGroup(pg);
+		
+		Assembler asm = new Assembler();
+		asm.load(PROGRAM);
+		process = new WarriorProcess(asm, pg);
+		for (int i = 0; i < registers.length; i++) {
+			process.setRegister(i + 1, registers[i]);
+		}
+		
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.bench.Benchmark#run()
+	 */
+	protected void run() {
+		int t = registers[2];
+		for (int i = 0; i < ops; i++) {
+			process.setRegister(3, t + (i & 0xff));
+			executor.exec(instruction, process, rvm);
+		}
+	}
+	
+	/**
+	 * Run the benchmarks.
+	 * 
+	 * @param args the report options
+	 * @throws Exception If a benchmark fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		
+		OpcodeBenchmark benchmarks[] = {
+			new OpcodeBenchmark("mult", "mult $2, $3", new int[] { 0, 123456789, -987 }, 10000000),
+			new OpcodeBenchmark("divu", "divu $2, $3", new int[] { 0, 123456789, 97 }, 10000000),
+			new OpcodeBenchmark("sw", "sw $3, 0($2)", new int[] { 0, 1000, 42 }, 10000000),
+			new OpcodeBenchmark("lw", "lw $3, 0($2)", new int[] { 0, 1000, 0 }, 10000000),
+			new OpcodeBenchmark("frk", "frk $2", new int[] { 0, 1000, 0 }, 100000),
+			new OpcodeBenchmark("syscall random", "syscall", new int[] { 1, 0, 0 }, 10000000),
+			new OpcodeBenchmark("syscall score", "syscall", new int[] { 8, 1, 0 }, 10000000),
+		};
+		
+		Report report = new Report(OpcodeBenchmark.class, args);
+		
+		for (int i = 0; i < benchmarks.length; i++) {
+			if (report.select(i)) {
+				OpcodeBenchmark b = benchmarks[i];
+				Measurement m = b.measure(WARMUPS, ITERATIONS);
+				report.rate(b.getName(), "instr/s", b.getOps(), m);
+				report.allocation(b.getName(), "instr", b.getOps(), m);
+			}
+		}
+		
+		report.finish();
+		
+	}
+	
+}
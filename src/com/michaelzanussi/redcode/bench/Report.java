@@ -0,0 +1,242 @@
+package com.michaelzanussi.redcode.bench;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Prints benchmark results as rates, with the error of each (the 
+ * standard deviation over the iterations timed, as a percentage of the
+ * mean) and, if a baseline was given, the change from the baseline. The 
+ * results may be saved to serve as the baseline of a later run. <p>
+ * 
+ * Each benchmark is run in a JVM of its own, started afresh by the 
+ * report, so that the code compiled for one benchmark cannot slow 
+ * another: a benchmark program asks <code>select()</code> whether to
+ * run each of its benchmarks, and only the forked JVM running that
+ * benchmark is told to. <p>
+ * 
+ * A report takes its options from the command line of the benchmark
+ * program:
+ * <dl>
+ * <dt><tt>-baseline</tt> <i>file</i></dt>
+ * <dd>compare the results with those saved in the file</dd>
+ * <dt><tt>-save</tt> <i>file</i></dt>
+ * <dd>save the results to the file</dd>
+ * <dt><tt>-nofork</tt></dt>
+ * <dd>run every benchmark in this JVM</dd>
+ * </dl>
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class Report {
+
+	private PrintStream out;		// where the report goes
+	private Properties baseline;	// the baseline rates, by result name
+	private Properties results;		// the rates reported, by result name
+	private File save;				// where the results are saved, or null
+	private Class<?> main;			// the benchmark program
+	private String baselineFile;	// the baseline file, or null
+	private boolean fork;			// run each benchmark in its own JVM?
+	private int selected;			// the benchmark to run, when forked
+	
+	/**
+	 * @param main the benchmark program
+	 * @param args the benchmark program's command line
+	 * @throws IOException If the baseline cannot be read.
+	 */
+	public Report(Class<?> main, String args[]) throws IOException {
+		
+		this.main = main;
+		out = System.out;
+		results = new Properties();
+		fork = true;
+		selected = -1;
+		
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-baseline") && i + 1 < args.length) {
+				baselineFile = args[++i];
+				baseline = new Properties();
+				InputStream in = new FileInputStream(baselineFile);
+				try {
+					baseline.load(in);
+				} finally {
+					in.close();
+				}
+			} else if (args[i].equals("-save") && i + 1 < args.length) {
+				save = new File(args[++i]);
+			} else if (args[i].equals("-nofork")) {
+				fork = false;
+			} else if (args[i].equals("-run") && i + 1 < args.length) {
+				// Run by a report, in a forked JVM.
+				selected = Integer.parseInt(args[++i]);
+				fork = false;
+			} else {
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+		
+		if (selected < 0) {
+			out.println("# " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version") + ", " + Runtime.getRuntime().availableProcessors() + " processors");
+		}
+		
+	}
+	
+	/**
+	 * Returns <code>true</code> if the benchmark program should run the
+	 * benchmark with the specified number in this JVM. Otherwise, the 
+	 * benchmark is run, and its results reported, by a forked JVM 
+	 * before the method returns.
+	 * 
+	 * @param benchmark the number of the benchmark, from 0
+	 * @return <code>true</code> if the benchmark should be run
+	 * @throws IOException If the forked JVM cannot be run.
+	 * @throws InterruptedException If interrupted waiting for the forked
+	 * JVM.
+	 */
+	public boolean select(int benchmark) throws IOException, InterruptedException {
+		
+		if (!fork) {
+			return (selected < 0 || selected == benchmark);
+		}
+		
+		// Run the program again, for this benchmark only, saving the
+		// results where they can be collected.
+		File saved = File.createTempFile("redcode", ".bench");
+		try {
+			List<String> command = new ArrayList<String>();
+			command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+			command.add("-cp");
+			command.add(System.getProperty("java.class.path"));
+			command.add(main.getName());
+			command.add("-run");
+			command.add(Integer.toString(benchmark));
+			command.add("-save");
+			command.add(saved.getPath());
+			if (baselineFile != null) {
+				command.add("-baseline");
+				command.add(baselineFile);
+			}
+			
+			Process jvm = new ProcessBuilder(command).inheritIO().start();
+			if (jvm.waitFor() != 0) {
+				throw new IOException("Benchmark " + benchmark + " failed");
+			}
+			
+			InputStream in = new FileInputStream(saved);
+			try {
+				results.load(in);
+			} finally {
+				in.close();
+			}
+		} finally {
+			saved.delete();
+		}
+		
+		return false;
+		
+	}
+	
+	/**
+	 * Report a rate: the number of operations done by each iteration,
+	 * per second.
+	 * 
+	 * @param name the name of the result
+	 * @param unit the name of the operations counted
+	 * @param ops the number of operations done by each iteration
+	 * @param m the measurements of the iterations
+	 */
+	public void rate(String name, String unit, double ops, Measurement m) {
+		
+		double seconds[] = m.getSeconds();
+		
+		// Rates are ops divided by each time, averaged.
+		double rates[] = new double[seconds.length];
+		double mean = 0;
+		for (int i = 0; i < seconds.length; i++) {
+			rates[i] = ops / seconds[i];
+			mean += rates[i];
+		}
+		mean /= seconds.length;
+		double var = 0;
+		for (double rate : rates) {
+			var += (rate - mean) * (rate - mean);
+		}
+		double error = (seconds.length > 1 ? 100 * Math.sqrt(var / (seconds.length - 1)) / mean : 0);
+		
+		String key = name + " " + unit;
+		StringBuilder sb = new StringBuilder(String.format("%-48s %14.0f %-10s +-%5.1f%%", name, mean, unit, error));
+		if (baseline != null && baseline.getProperty(key) != null) {
+			double base = Double.parseDouble(baseline.getProperty(key));
+			sb.append(String.format("  %+7.1f%%", 100 * (mean - base) / base));
+		}
+		out.println(sb);
+		
+		results.setProperty(key, Double.toString(mean));
+		
+	}
+	
+	/**
+	 * Report the bytes allocated per operation, if measured.
+	 * 
+	 * @param name the name of the result
+	 * @param unit the name of the operations counted
+	 * @param ops the number of operations done by each iteration
+	 * @param m the measurements of the iterations
+	 */
+	public void allocation(String name, String unit, double ops, Measurement m) {
+		
+		long bytes[] = m.getAllocatedBytes();
+		if (bytes == null) {
+			out.println(String.format("%-48s %14s B/%s", name, "n/a", unit));
+			return;
+		}
+		
+		// The least allocated is the truest; the other iterations may
+		// include allocation by the JIT compiler.
+		long least = Long.MAX_VALUE;
+		for (long b : bytes) {
+			least = Math.min(least, b);
+		}
+		double perOp = least / ops;
+		
+		String key = name + " B/" + unit;
+		StringBuilder sb = new StringBuilder(String.format("%-48s %14.1f %-10s", name, perOp, "B/" + unit));
+		if (baseline != null && baseline.getProperty(key) != null) {
+			double base = Double.parseDouble(baseline.getProperty(key));
+			sb.append(String.format("          %+7.1f B", perOp - base));
+		}
+		out.println(sb);
+		
+		results.setProperty(key, Double.toString(perOp));
+		
+	}
+	
+	/**
+	 * Finish the report, saving the results if asked to.
+	 * 
+	 * @throws IOException If the results cannot be saved.
+	 */
+	public void finish() throws IOException {
+		if (save != null) {
+			OutputStream os = new FileOutputStream(save);
+			try {
+				results.store(os, "Redcode benchmark results");
+			} finally {
+				os.close();
+			}
+			if (selected < 0) {
+				out.println("# results saved to " + save);
+			}
+		}
+	}
+	
+}
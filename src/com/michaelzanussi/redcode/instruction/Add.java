@@ -70,19 +70,19 @@ public class Add extends RFormat {
 	}
 	
 	/* (non-Javadoc)
-	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(int, com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
 	 */
-	public void exec(WarriorProcess process, RVM rvm) {
+	public void exec(int instruction, WarriorProcess process, RVM rvm) {
 		
 		// Retrieve the rs and rt registers.
-		int s = process.getRegister(rs);
-		int t = process.getRegister(rt);
+		int s = process.getRegister(rs(instruction));
+		int t = process.getRegister(rt(instruction));
 				
 		// $d = $s + $t
 		int d = s + t;
 		
 		// Put the result into register rd.
-		process.setRegister(rd, d);
+		process.setRegister(rd(instruction), d);
 		
 		// Increment PC.
 		process.incrementPC();
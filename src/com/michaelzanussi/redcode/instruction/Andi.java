@@ -70,18 +70,18 @@ public class Andi extends IFormat {
 	}
 	
 	/* (non-Javadoc)
-	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(int, com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
 	 */
-	public void exec(WarriorProcess process, RVM rvm) {
+	public void exec(int instruction, WarriorProcess process, RVM rvm) {
 		
 		// Retrieve the rs register.
-		int s = process.getRegister(rs);
+		int s = process.getRegister(rs(instruction));
 		
 		// $t = $s & C
-		int t = s & immediate;
+		int t = s & immediateUnsigned(instruction);
 		
 		// Put the result into register rt.
-		process.setRegister(rt, t);
+		process.setRegister(rt(instruction), t);
 		
 		// Increment PC.
 		process.incrementPC();
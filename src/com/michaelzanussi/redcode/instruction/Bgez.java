@@ -71,12 +71,12 @@ public class Bgez extends IFormat {
 	}
 	
 	/* (non-Javadoc)
-	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(int, com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
 	 */
-	public void exec(WarriorProcess process, RVM rvm) {
+	public void exec(int instruction, WarriorProcess process, RVM rvm) {
 		
 		// Retrieve the rs register.
-		int s = process.getRegister(rs);
+		int s = process.getRegister(rs(instruction));
 		
 		// Conditionally branch the number of instructions specified by the
 		// immediate (i.e., offset) if register rs is greater than or
@@ -85,7 +85,7 @@ public class Bgez extends IFormat {
 			// Get the current PC, increment it by the offset, then
 			// write it back.
 			int pc = process.getPC();
-			pc += immediate;
+			pc += immediate(instruction);
 			process.setPC(pc);
 		} else {
 			// Increment PC.
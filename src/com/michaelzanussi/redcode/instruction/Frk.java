@@ -1,11 +1,9 @@
 package com.michaelzanussi.redcode.instruction;
 
-import java.util.List;
-
+import com.michaelzanussi.redcode.Assembler;
 import com.michaelzanussi.redcode.IFormat;
 import com.michaelzanussi.redcode.Lexer;
 import com.michaelzanussi.redcode.ParsingException;
-import com.michaelzanussi.redcode.rvm.Cell;
 import com.michaelzanussi.redcode.rvm.RVM;
 import com.michaelzanussi.redcode.rvm.WarriorProcess;
 
@@ -74,17 +72,20 @@ public class Frk extends IFormat {
 	}
 	
 	/* (non-Javadoc)
-	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(int, com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
 	 */
-	public void exec(WarriorProcess process, RVM rvm) {
+	public void exec(int instruction, WarriorProcess process, RVM rvm) {
 		
 		// Retrieve the rt register.
 		// rt holds the PC for the new process.
-		int t = process.getRegister(rt);
+		int t = process.getRegister(rt(instruction));
 		
-		if (t < 0 || t > rvm.memsize()) {
+		if (!rvm.isWrapping() && (t < 0 || t > rvm.memsize())) {
 			// PC has run off the end of RVM RAM.
-			process.kill();
+			rvm.fault(process, t);
+		} else if (process.getProcessGroup().isFull()) {
+			// The process group has reached its process limit,
+			// so no new process is created.
 		} else {
 			// PC is okay.
 			
@@ -92,22 +93,14 @@ public class Frk extends IFormat {
 			// executing process. The new process is initialized as
 			// specified by the rules and its PC is set from rs.
 			WarriorProcess newProcess = new WarriorProcess(process.getAssembler(), process.getProcessGroup());
-			newProcess.setPC(t);
-			
-			// get the instruction set.
-			List<Integer> iset = newProcess.getInstructions();
+			newProcess.setPC(rvm.isWrapping() ? rvm.translate(t) : t);
 			
 			// Load the program into memory
-			for (Integer instruction : iset) {
-				try {
-					Cell cell = rvm.getMemory(t);
-					cell.setProcessGroup(newProcess.getProcessGroup());
-					cell.setPID(newProcess.getPID());
-					cell.setInstruction(instruction);
-					t++;
-				} catch (IndexOutOfBoundsException e) {
-					process.kill();
-				}
+			Assembler program = newProcess.getAssembler();
+			int stored = rvm.store(t, program, newProcess.getProcessGroup(), newProcess.getPID());
+			if (stored < program.getInstructions().size()) {
+				// The program has run off the end of RVM RAM.
+				rvm.fault(process, t + stored);
 			}
 			
 		}
@@ -68,14 +68,14 @@ public class J extends JFormat {
 	}
 	
 	/* (non-Javadoc)
-	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(int, com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
 	 */
-	public void exec(WarriorProcess process, RVM rvm) {
+	public void exec(int instruction, WarriorProcess process, RVM rvm) {
 		
 		// Get the current PC and calculate the new value by adding
 		// target to it. Set PC to the newly calculated value. 
 		int ntarget = process.getPC();
-		ntarget += target;
+		ntarget += target(instruction);
 		process.setPC(ntarget);
 		
 	}
@@ -3,7 +3,6 @@ package com.michaelzanussi.redcode.instruction;
 import com.michaelzanussi.redcode.IFormat;
 import com.michaelzanussi.redcode.Lexer;
 import com.michaelzanussi.redcode.ParsingException;
-import com.michaelzanussi.redcode.rvm.Cell;
 import com.michaelzanussi.redcode.rvm.RVM;
 import com.michaelzanussi.redcode.rvm.WarriorProcess;
 
@@ -71,28 +70,27 @@ public class Lw extends IFormat {
 	}
 	
 	/* (non-Javadoc)
-	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(int, com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
 	 */
-	public void exec(WarriorProcess process, RVM rvm) {
+	public void exec(int instruction, WarriorProcess process, RVM rvm) {
 		
 		// Retrieve the rs register.
-		int s = process.getRegister(rs);
+		int s = process.getRegister(rs(instruction));
 		
 		// Calculate the source address (register) from which rt will 
 		// be populated with. The source address (register) is the 
 		// contents of register rs plus an offset (immediate).
-		int address = s + immediate;
+		int address = s + immediate(instruction);
 		
 		// Load the 32-bit quantity (word) at address (rs + immediate)
-		try {
-			// return the cell at memory pointed to by address
-			Cell cell = rvm.getMemory(address);
-			// get the word stored there
-			Integer word = cell.getWord();
+		int loc = rvm.translate(address);
+		if (loc == RVM.FAULT) {
+			rvm.fault(process, address);
+		} else {
+			// get the word stored at memory pointed to by address
+			int word = rvm.load(loc, process);
 			// Put the result into register rt.
-			process.setRegister(rt, word);
-		} catch (IndexOutOfBoundsException e) {
-			process.kill();
+			process.setRegister(rt(instruction), word);
 		}
 		
 		// Increment PC.
@@ -71,18 +71,18 @@ public class Slti extends IFormat {
 	}
 	
 	/* (non-Javadoc)
-	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(int, com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
 	 */
-	public void exec(WarriorProcess process, RVM rvm) {
+	public void exec(int instruction, WarriorProcess process, RVM rvm) {
 		
 		// Retrieve the rs register.
-		int s = process.getRegister(rs);
+		int s = process.getRegister(rs(instruction));
 		
 		// $t = ($s < C)
-		if (s < immediate) {
-			process.setRegister(rt, 1);
+		if (s < immediate(instruction)) {
+			process.setRegister(rt(instruction), 1);
 		} else {
-			process.setRegister(rt, 0);
+			process.setRegister(rt(instruction), 0);
 		}
 		
 		// Increment PC.
@@ -3,7 +3,6 @@ package com.michaelzanussi.redcode.instruction;
 import com.michaelzanussi.redcode.IFormat;
 import com.michaelzanussi.redcode.Lexer;
 import com.michaelzanussi.redcode.ParsingException;
-import com.michaelzanussi.redcode.rvm.Cell;
 import com.michaelzanussi.redcode.rvm.RVM;
 import com.michaelzanussi.redcode.rvm.WarriorProcess;
 
@@ -71,31 +70,28 @@ public class Sw extends IFormat {
 	}
 	
 	/* (non-Javadoc)
-	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(int, com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
 	 */
-	public void exec(WarriorProcess process, RVM rvm) {
+	public void exec(int instruction, WarriorProcess process, RVM rvm) {
 		
 		// Retrieve the rs and rt registers.
-		int s = process.getRegister(rs);
-		int t = process.getRegister(rt);
+		int s = process.getRegister(rs(instruction));
+		int t = process.getRegister(rt(instruction));
 		
 		// Calculate the destination address (register) where we'll 
 		// store the contents of rt. The source address (register) 
 		// is the contents of register rs plus an offset (immediate).
-		int address = s + immediate;
+		int address = s + immediate(instruction);
 		
 		// Store the 32-bit quantity (word) at register rt
 		// into address (rs + immediate)
-		try {
-			// return the cell at memory pointed to by address
-			Cell cell = rvm.getMemory(address);
-			// set the word to rt.
-			cell.setWord(t);
-			// set process group and PID for this cell.
-			cell.setProcessGroup(process.getProcessGroup());
-			cell.setPID(process.getPID());
-		} catch (IndexOutOfBoundsException e) {
-			process.kill();
+		int loc = rvm.translate(address);
+		if (loc == RVM.FAULT) {
+			rvm.fault(process, address);
+		} else {
+			// set the word at memory pointed to by address to rt,
+			// along with the process group and PID for this cell.
+			rvm.store(loc, t, process.getProcessGroup(), process.getPID());
 		}
 
 		// Increment PC.
@@ -6,8 +6,6 @@ import com.michaelzanussi.redcode.rvm.WarriorProcess;
 import com.michaelzanussi.redcode.Lexer;
 import com.michaelzanussi.redcode.ParsingException;
 
-import java.util.Random;
-
 /**
  * An R-format instruction type, <tt>syscall</tt> puts the system call ID into
  * register <tt>rs</tt> (<tt>$1</tt>) and the argument to the call into register
@@ -80,9 +78,9 @@ public class Syscall extends RFormat {
 	}
 
 	/* (non-Javadoc)
-	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
+	 * @see com.michaelzanussi.redcode.AbstractRedcodeInstruction#exec(int, com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.RVM)
 	 */
-	public void exec(WarriorProcess process, RVM rvm) {
+	public void exec(int instruction, WarriorProcess process, RVM rvm) {
 
 		// Switch on register 1, the call id.
 		switch (process.getRegister(1)) {
@@ -91,8 +89,7 @@ public class Syscall extends RFormat {
 			process.kill();
 			break;
 		case 1: // Random Number between 0 and RVM memory size.
-			Random rand = new Random();
-			int value = rand.nextInt(rvm.memsize());
+			int value = rvm.getRandom().nextInt(rvm.memsize());
 			// Store result in register $1.
 			process.setRegister(1, value);
 			break;
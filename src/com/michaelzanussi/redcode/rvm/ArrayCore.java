@@ -0,0 +1,103 @@
+package com.michaelzanussi.redcode.rvm;
+
+import java.util.Arrays;
+
+/**
+ * A core held on the Java heap as parallel primitive arrays: the words,
+ * the owners and the PIDs. This is the RVM's default core.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class ArrayCore implements Core {
+
+	private int words[];		// the word at each location,
+	private byte owners[];		// the player owning it (0 if none),
+	private int pids[];			// and the PID of the process that wrote it
+	
+	/**
+	 * @param size the number of locations
+	 */
+	public ArrayCore(int size) {
+		
+		if (size < 1) {
+			throw new IllegalArgumentException("Invalid core size: " + size);
+		}
+		
+		words = new int[size];
+		owners = new byte[size];
+		pids = new int[size];
+		
+		// Initialize memory.
+		Arrays.fill(words, 13);		// hlt
+		
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#size()
+	 */
+	public int size() {
+		return words.length;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#getWord(int)
+	 */
+	public int getWord(int loc) {
+		return words[loc];
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#getOwner(int)
+	 */
+	public int getOwner(int loc) {
+		return owners[loc];
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#getPID(int)
+	 */
+	public int getPID(int loc) {
+		return pids[loc];
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#set(int, int, int, int)
+	 */
+	public void set(int loc, int word, int owner, int pid) {
+		words[loc] = word;
+		owners[loc] = (byte)owner;
+		pids[loc] = pid;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#set(int, int[], int, int, int, int)
+	 */
+	public void set(int loc, int words[], int offset, int length, int owner, int pid) {
+		System.arraycopy(words, offset, this.words, loc, length);
+		Arrays.fill(owners, loc, loc + length, (byte)owner);
+		Arrays.fill(pids, loc, loc + length, pid);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#setWord(int, int)
+	 */
+	public void setWord(int loc, int word) {
+		words[loc] = word;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#setOwner(int, int)
+	 */
+	public void setOwner(int loc, int owner) {
+		owners[loc] = (byte)owner;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#setPID(int, int)
+	 */
+	public void setPID(int loc, int pid) {
+		pids[loc] = pid;
+	}
+	
+}
@@ -0,0 +1,69 @@
+package com.michaelzanussi.redcode.rvm;
+
+/**
+ * An abstract adapter class for receiving battle events. The methods in
+ * this class are empty; extend it and override only the methods for the
+ * events of interest.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public abstract class BattleAdapter implements BattleListener {
+
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleListener#fetched(com.michaelzanussi.redcode.rvm.WarriorProcess, int, int)
+	 */
+	public void fetched(WarriorProcess process, int pc, int loc) {
+		
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleListener#stepped(com.michaelzanussi.redcode.rvm.WarriorProcess, int, int)
+	 */
+	public void stepped(WarriorProcess process, int loc, int instruction) {
+		
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleListener#killed(com.michaelzanussi.redcode.rvm.WarriorProcess)
+	 */
+	public void killed(WarriorProcess process) {
+		
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleListener#forked(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.WarriorProcess)
+	 */
+	public void forked(WarriorProcess parent, WarriorProcess child) {
+		
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleListener#written(int, int, com.michaelzanussi.redcode.rvm.ProcessGroup, int)
+	 */
+	public void written(int loc, int word, ProcessGroup pg, int pid) {
+		
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleListener#read(com.michaelzanussi.redcode.rvm.WarriorProcess, int, int)
+	 */
+	public void read(WarriorProcess process, int loc, int word) {
+		
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleListener#faulted(com.michaelzanussi.redcode.rvm.WarriorProcess, int)
+	 */
+	public void faulted(WarriorProcess process, int address) {
+		
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleListener#cycleEnded(int)
+	 */
+	public void cycleEnded(int cycle) {
+		
+	}
+	
+}
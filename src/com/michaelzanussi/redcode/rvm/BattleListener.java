@@ -0,0 +1,93 @@
+package com.michaelzanussi.redcode.rvm;
+
+/**
+ * The listener interface for receiving the events of a battle run by
+ * an RVM. A listener is registered with <code>addBattleListener()</code>;
+ * an RVM with no listeners registered does no work on their behalf. <p>
+ * 
+ * Events are delivered on the thread running the battle, in the order 
+ * they occur. For each step a process takes, the fetch comes first, 
+ * then any reads, writes, faults, forks or kills caused by the 
+ * instruction, then the step itself. Listeners should return quickly 
+ * and must not modify the RVM.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ * @see BattleAdapter
+ */
+public interface BattleListener {
+
+	/**
+	 * Invoked when an instruction is fetched for a process.
+	 * 
+	 * @param process the process
+	 * @param pc the PC of the process
+	 * @param loc the memory location fetched from, or RVM.FAULT if the
+	 * fetch failed and the process will halt
+	 */
+	public void fetched(WarriorProcess process, int pc, int loc);
+	
+	/**
+	 * Invoked when a process has executed an instruction. A step whose
+	 * fetch failed is reported too, though it executes nothing but the
+	 * halt of the process.
+	 * 
+	 * @param process the process
+	 * @param loc the memory location the instruction was fetched from,
+	 * or RVM.FAULT if the fetch failed
+	 * @param instruction the 32-bit word instruction executed
+	 */
+	public void stepped(WarriorProcess process, int loc, int instruction);
+	
+	/**
+	 * Invoked when a process is killed.
+	 * 
+	 * @param process the process
+	 */
+	public void killed(WarriorProcess process);
+	
+	/**
+	 * Invoked when a process forks a new process.
+	 * 
+	 * @param parent the process executing <tt>frk</tt>
+	 * @param child the new process
+	 */
+	public void forked(WarriorProcess parent, WarriorProcess child);
+	
+	/**
+	 * Invoked when a word is written to memory.
+	 * 
+	 * @param loc the memory location
+	 * @param word the 32-bit word written
+	 * @param pg the process group now owning the location, or 
+	 * <code>null</code> if none
+	 * @param pid the PID of the writing process
+	 */
+	public void written(int loc, int word, ProcessGroup pg, int pid);
+	
+	/**
+	 * Invoked when a process reads a word from memory.
+	 * 
+	 * @param process the process
+	 * @param loc the memory location
+	 * @param word the 32-bit word read
+	 */
+	public void read(WarriorProcess process, int loc, int word);
+	
+	/**
+	 * Invoked when a process addresses a location outside of memory.
+	 * 
+	 * @param process the process
+	 * @param address the faulting address
+	 */
+	public void faulted(WarriorProcess process, int address);
+	
+	/**
+	 * Invoked at the end of each cycle of a battle, once every process
+	 * group has had its turn.
+	 * 
+	 * @param cycle the cycle just ended, counting from 0
+	 */
+	public void cycleEnded(int cycle);
+	
+}
@@ -0,0 +1,190 @@
+package com.michaelzanussi.redcode.rvm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * A core held outside the Java heap in a direct or memory-mapped 
+ * <tt>ByteBuffer</tt>. A core mapped from a file may be read while the
+ * battle runs by any tool able to map the same file, including another
+ * JVM, without copying or pausing the RVM. <p>
+ * 
+ * The buffer is little-endian and laid out as follows:
+ * <pre>
+ *   offset                  contents
+ *   0                       magic number, 0x52564d43 ("RVMC")
+ *   4                       core size, in locations
+ *   8                       reserved (8 bytes)
+ *   HEADER                  the words, 4 bytes per location
+ *   HEADER + 4 * size       the PIDs, 4 bytes per location
+ *   HEADER + 8 * size       the owners, 1 byte per location
+ * </pre>
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class BufferCore implements Core {
+
+	public static final int MAGIC = 0x52564d43;	// "RVMC"
+	public static final int HEADER = 16;		// header length, in bytes
+	
+	private ByteBuffer buffer;	// the core
+	private int size;			// number of locations
+	private int pids;			// offset of the PID region
+	private int owners;			// offset of the owner region
+	
+	/**
+	 * Create a core of the specified size in a direct buffer.
+	 * 
+	 * @param size the number of locations
+	 */
+	public BufferCore(int size) {
+		this(ByteBuffer.allocateDirect(length(size)), size);
+	}
+	
+	/**
+	 * Create a core of the specified size in the specified buffer,
+	 * which must hold at least <code>length(size)</code> bytes from
+	 * its position.
+	 * 
+	 * @param buffer the buffer to hold the core
+	 * @param size the number of locations
+	 */
+	public BufferCore(ByteBuffer buffer, int size) {
+		
+		if (buffer.remaining() < length(size)) {
+			throw new IllegalArgumentException("Buffer too small for core size: " + size);
+		}
+		
+		this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		this.size = size;
+		this.pids = HEADER + 4 * size;
+		this.owners = HEADER + 8 * size;
+		
+		// Write the header.
+		this.buffer.putInt(0, MAGIC);
+		this.buffer.putInt(4, size);
+		
+		// Initialize memory.
+		for (int i = 0; i < size; i++) {
+			set(i, 13, 0, 0);	// hlt
+		}
+		
+	}
+	
+	/**
+	 * Create a core of the specified size mapped from the specified 
+	 * file. The file is created or resized as needed, and any core it
+	 * held is overwritten.
+	 * 
+	 * @param file the file to map
+	 * @param size the number of locations
+	 * @return the mapped core
+	 * @throws IOException If the file cannot be mapped.
+	 */
+	public static BufferCore map(File file, int size) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			FileChannel channel = raf.getChannel();
+			// The mapping remains valid once the channel is closed.
+			return new BufferCore(channel.map(FileChannel.MapMode.READ_WRITE, 0, length(size)), size);
+		} finally {
+			raf.close();
+		}
+	}
+	
+	/**
+	 * Returns the length in bytes of a core of the specified size.
+	 * 
+	 * @param size the number of locations
+	 * @return the length in bytes
+	 */
+	public static int length(int size) {
+		if (size < 1 || size > (Integer.MAX_VALUE - HEADER) / 9) {
+			throw new IllegalArgumentException("Invalid core size: " + size);
+		}
+		return HEADER + 9 * size;
+	}
+	
+	/**
+	 * Returns a read-only view of the core's buffer, for tools inspecting
+	 * the core in the same JVM.
+	 * 
+	 * @return the core's buffer
+	 */
+	public ByteBuffer getBuffer() {
+		return buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#size()
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#getWord(int)
+	 */
+	public int getWord(int loc) {
+		return buffer.getInt(HEADER + 4 * loc);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#getOwner(int)
+	 */
+	public int getOwner(int loc) {
+		return buffer.get(owners + loc);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#getPID(int)
+	 */
+	public int getPID(int loc) {
+		return buffer.getInt(pids + 4 * loc);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#set(int, int, int, int)
+	 */
+	public void set(int loc, int word, int owner, int pid) {
+		buffer.putInt(HEADER + 4 * loc, word);
+		buffer.put(owners + loc, (byte)owner);
+		buffer.putInt(pids + 4 * loc, pid);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#set(int, int[], int, int, int, int)
+	 */
+	public void set(int loc, int words[], int offset, int length, int owner, int pid) {
+		for (int i = 0; i < length; i++) {
+			set(loc + i, words[offset + i], owner, pid);
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#setWord(int, int)
+	 */
+	public void setWord(int loc, int word) {
+		buffer.putInt(HEADER + 4 * loc, word);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#setOwner(int, int)
+	 */
+	public void setOwner(int loc, int owner) {
+		buffer.put(owners + loc, (byte)owner);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#setPID(int, int)
+	 */
+	public void setPID(int loc, int pid) {
+		buffer.putInt(pids + 4 * loc, pid);
+	}
+	
+}
@@ -2,19 +2,30 @@ package com.michaelzanussi.redcode.rvm;
 
 /**
  * Represents each cell of the RVM's RAM. Each cell contains
- * an instruction, the owner, and a process id.
+ * an instruction, the owner, and a process id. <p>
+ * 
+ * A cell obtained from <code>RVM.getMemory()</code> is a view onto a
+ * single location of RVM memory, which holds the words, owners and PIDs
+ * in parallel arrays; changes made through the cell are made to RVM
+ * memory. A cell created with the no-arg constructor is detached from
+ * any RVM and holds its own contents.
  * 
  * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
  * @version 1.0 (8 April 2016)
  */
 public class Cell {
 
+	private RVM rvm;		// the RVM owning the memory, or null if detached
+	private int loc;
+	
+	// The contents of a detached cell.
 	private ProcessGroup pg;
 	private int pid;
 	private Integer instruction;
 	
 	/**
-	 * 
+	 * Create a detached cell, which holds a <tt>hlt</tt> instruction
+	 * and has no owner.
 	 */
 	public Cell() {
 		this.pg = null;
@@ -22,46 +33,67 @@ public class Cell {
 		this.instruction = 13;	// hlt
 	}
 	
+	/**
+	 * @param rvm the RVM owning the memory
+	 * @param loc the memory location
+	 */
+	Cell(RVM rvm, int loc) {
+		this.rvm = rvm;
+		this.loc = loc;
+	}
+	
 	/**
 	 * @return
 	 */
 	public ProcessGroup getProcessGroup() {
-		return this.pg;
+		return (rvm == null ? pg : rvm.getOwnerGroup(loc));
 	}
 	
 	/**
 	 * @param pg
 	 */
 	public void setProcessGroup(ProcessGroup pg) {
-		this.pg = pg;
+		if (rvm == null) {
+			this.pg = pg;
+		} else {
+			rvm.setOwner(loc, pg);
+		}
 	}
 	
 	/**
 	 * @return
 	 */
 	public int getPID() {
-		return this.pid;
+		return (rvm == null ? pid : rvm.getPID(loc));
 	}
 	
 	/**
 	 * @param pid
 	 */
 	public void setPID(int pid) {
-		this.pid = pid;
+		if (rvm == null) {
+			this.pid = pid;
+		} else {
+			rvm.setPID(loc, pid);
+		}
 	}
 	
 	/**
 	 * @return
 	 */
 	public Integer getInstruction() {
-		return this.instruction;
+		return (rvm == null ? instruction : rvm.getWord(loc));
 	}
 	
 	/**
 	 * @param instruction
 	 */
 	public void setInstruction(Integer instruction) {
-		this.instruction = instruction;
+		if (rvm == null) {
+			this.instruction = instruction;
+		} else {
+			rvm.setWord(loc, instruction);
+		}
 	}
 	
 	/**
@@ -82,7 +114,10 @@ public class Cell {
 	 * @see java.lang.Object#toString()
 	 */
 	public String toString() {
-		return (pg == null ? "0" : pg.getPlayer().toString());
+		if (rvm == null) {
+			return (pg == null ? "0" : pg.getPlayer().toString());
+		}
+		return Integer.toString(rvm.getOwner(loc));
 	}
 	
 }
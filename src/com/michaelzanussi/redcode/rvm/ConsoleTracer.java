@@ -0,0 +1,75 @@
+package com.michaelzanussi.redcode.rvm;
+
+import java.io.PrintStream;
+
+/**
+ * A battle listener printing a trace of the battle: each process step
+ * with its PC, the owner of the location fetched from, the instruction
+ * executed and the resulting registers, each process killed and, at the
+ * end of each cycle, the owner of every memory location. This is the 
+ * RVM's former debug output; register it to see it again.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class ConsoleTracer extends BattleAdapter {
+
+	private RVM rvm;			// the RVM traced
+	private PrintStream out;	// where the trace goes
+	
+	/**
+	 * Trace the specified RVM to <code>System.out</code>.
+	 * 
+	 * @param rvm the RVM traced
+	 */
+	public ConsoleTracer(RVM rvm) {
+		this(rvm, System.out);
+	}
+	
+	/**
+	 * @param rvm the RVM traced
+	 * @param out where the trace goes
+	 */
+	public ConsoleTracer(RVM rvm, PrintStream out) {
+		this.rvm = rvm;
+		this.out = out;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#fetched(com.michaelzanussi.redcode.rvm.WarriorProcess, int, int)
+	 */
+	public void fetched(WarriorProcess process, int pc, int loc) {
+		out.println("G" + process.getProcessGroup().getPlayer() + ": p" + process.getPID());
+		out.print("\t\tpc:" + pc + " ");
+		if (loc != RVM.FAULT) {
+			out.print("owner:" + rvm.getOwner(loc) + " ");
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#stepped(com.michaelzanussi.redcode.rvm.WarriorProcess, int, int)
+	 */
+	public void stepped(WarriorProcess process, int loc, int instruction) {
+		out.print("inst:" + instruction + " ");
+		out.print(process.getInstruction(instruction));
+		out.println();
+		process.dump(out);
+		out.println();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#killed(com.michaelzanussi.redcode.rvm.WarriorProcess)
+	 */
+	public void killed(WarriorProcess process) {
+		out.println("p" + process.getPID() + "\t\tNO LONGER RUNNABLE!");
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#cycleEnded(int)
+	 */
+	public void cycleEnded(int cycle) {
+		out.println("CYCLE " + cycle);
+		out.println(rvm.toString());
+	}
+	
+}
@@ -0,0 +1,96 @@
+package com.michaelzanussi.redcode.rvm;
+
+/**
+ * The backing store for RVM memory. A core holds, for each location,
+ * the 32-bit word stored there, the player owning it (0 if none) and
+ * the PID of the process that wrote it. A newly created core holds
+ * <tt>hlt</tt> at every location, owned by no one. <p>
+ * 
+ * Locations are validated by the RVM before the core is accessed, so
+ * implementations need not check them.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public interface Core {
+
+	/**
+	 * Returns the number of locations in the core.
+	 * 
+	 * @return the core size
+	 */
+	public int size();
+	
+	/**
+	 * Returns the word stored at the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @return the 32-bit word
+	 */
+	public int getWord(int loc);
+	
+	/**
+	 * Returns the player owning the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @return the player, or 0 if no one owns the location
+	 */
+	public int getOwner(int loc);
+	
+	/**
+	 * Returns the PID of the process that wrote the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @return the PID
+	 */
+	public int getPID(int loc);
+	
+	/**
+	 * Stores the word, owner and PID at the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @param word the 32-bit word
+	 * @param owner the player, or 0 for no owner
+	 * @param pid the PID
+	 */
+	public void set(int loc, int word, int owner, int pid);
+	
+	/**
+	 * Stores consecutive words from the specified array, all with the 
+	 * same owner and PID, starting at the specified location. The 
+	 * locations must lie within the core.
+	 * 
+	 * @param loc the first memory location
+	 * @param words the words to store
+	 * @param offset the index of the first word to store
+	 * @param length the number of words to store
+	 * @param owner the player, or 0 for no owner
+	 * @param pid the PID
+	 */
+	public void set(int loc, int words[], int offset, int length, int owner, int pid);
+	
+	/**
+	 * Stores the word at the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @param word the 32-bit word
+	 */
+	public void setWord(int loc, int word);
+	
+	/**
+	 * Sets the player owning the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @param owner the player, or 0 for no owner
+	 */
+	public void setOwner(int loc, int owner);
+	
+	/**
+	 * Sets the PID of the process that wrote the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @param pid the PID
+	 */
+	public void setPID(int loc, int pid);
+	
+}
@@ -0,0 +1,266 @@
+package com.michaelzanussi.redcode.rvm;
+
+import java.io.PrintStream;
+
+import com.michaelzanussi.redcode.InstructionTable;
+
+/**
+ * A battle listener counting the instructions retired by opcode, by
+ * player and by process, and the memory reads, memory writes, forks, 
+ * kills and memory faults by player. Opcodes are counted by their
+ * mnemonic table key, the dispatch table index returned by 
+ * <code>InstructionTable.index()</code>. <p>
+ * 
+ * A step whose fetch failed retires no instruction, as with 
+ * <tt>HotspotProfiler</tt>: a PC outside of memory is counted only as
+ * a memory fault, and a PC in a location owned by another player only
+ * as the kill of the process. <p>
+ * 
+ * The counters are kept in primitive arrays, so counting an event
+ * costs an array increment. They may be read at any time during or 
+ * after a battle, from the thread running the battle.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class ExecutionCounters extends BattleAdapter {
+
+	private long retired[][];		// instructions retired, by player and key
+	private long byProcess[][];		// instructions retired, by player and PID
+	private long reads[];			// memory reads, by player
+	private long writes[];			// memory writes, by player
+	private long forks[];			// forks, by player
+	private long kills[];			// kills, by player
+	private long faults[];			// memory faults, by player
+	
+	/**
+	 * No-arg constructor.
+	 */
+	public ExecutionCounters() {
+		reset();
+	}
+	
+	/**
+	 * Set every counter to zero.
+	 */
+	public void reset() {
+		retired = new long[10][InstructionTable.SIZE];
+		byProcess = new long[10][16];
+		reads = new long[10];
+		writes = new long[10];
+		forks = new long[10];
+		kills = new long[10];
+		faults = new long[10];
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#stepped(com.michaelzanussi.redcode.rvm.WarriorProcess, int, int)
+	 */
+	public void stepped(WarriorProcess process, int loc, int instruction) {
+		if (loc == RVM.FAULT) {
+			return;
+		}
+		int player = process.getProcessGroup().getPlayer();
+		retired[player][InstructionTable.index(instruction)]++;
+		int pid = process.getPID();
+		if (pid >= byProcess[player].length) {
+			long grown[] = new long[pid * 2];
+			System.arraycopy(byProcess[player], 0, grown, 0, byProcess[player].length);
+			byProcess[player] = grown;
+		}
+		byProcess[player][pid]++;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#read(com.michaelzanussi.redcode.rvm.WarriorProcess, int, int)
+	 */
+	public void read(WarriorProcess process, int loc, int word) {
+		reads[process.getProcessGroup().getPlayer()]++;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#written(int, int, com.michaelzanussi.redcode.rvm.ProcessGroup, int)
+	 */
+	public void written(int loc, int word, ProcessGroup pg, int pid) {
+		if (pg != null && pg.getPlayer() != null) {
+			writes[pg.getPlayer()]++;
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#forked(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.WarriorProcess)
+	 */
+	public void forked(WarriorProcess parent, WarriorProcess child) {
+		forks[parent.getProcessGroup().getPlayer()]++;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#killed(com.michaelzanussi.redcode.rvm.WarriorProcess)
+	 */
+	public void killed(WarriorProcess process) {
+		kills[process.getProcessGroup().getPlayer()]++;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#faulted(com.michaelzanussi.redcode.rvm.WarriorProcess, int)
+	 */
+	public void faulted(WarriorProcess process, int address) {
+		faults[process.getProcessGroup().getPlayer()]++;
+	}
+	
+	/**
+	 * Returns the number of instructions retired by every player.
+	 * 
+	 * @return the number of instructions retired
+	 */
+	public long getRetired() {
+		long n = 0;
+		for (int player = 1; player < 10; player++) {
+			n += getRetired(player);
+		}
+		return n;
+	}
+	
+	/**
+	 * Returns the number of instructions retired by the specified 
+	 * player.
+	 * 
+	 * @param player the player
+	 * @return the number of instructions retired
+	 */
+	public long getRetired(int player) {
+		long n = 0;
+		for (long count : retired[player]) {
+			n += count;
+		}
+		return n;
+	}
+	
+	/**
+	 * Returns the number of instructions with the specified mnemonic 
+	 * table key retired by every player.
+	 * 
+	 * @param key the key, between 0 and <code>InstructionTable.SIZE - 1</code>
+	 * @return the number of instructions retired
+	 */
+	public long getRetiredByKey(int key) {
+		long n = 0;
+		for (int player = 1; player < 10; player++) {
+			n += retired[player][key];
+		}
+		return n;
+	}
+	
+	/**
+	 * Returns the number of instructions with the specified mnemonic 
+	 * table key retired by the specified player.
+	 * 
+	 * @param player the player
+	 * @param key the key, between 0 and <code>InstructionTable.SIZE - 1</code>
+	 * @return the number of instructions retired
+	 */
+	public long getRetiredByKey(int player, int key) {
+		return retired[player][key];
+	}
+	
+	/**
+	 * Returns the number of instructions retired by the specified 
+	 * process.
+	 * 
+	 * @param player the player
+	 * @param pid the PID
+	 * @return the number of instructions retired
+	 */
+	public long getRetiredByProcess(int player, int pid) {
+		return (pid >= 0 && pid < byProcess[player].length ? byProcess[player][pid] : 0);
+	}
+	
+	/**
+	 * @param player the player
+	 * @return the number of memory reads by the player
+	 */
+	public long getReads(int player) {
+		return reads[player];
+	}
+	
+	/**
+	 * @param player the player
+	 * @return the number of memory writes by the player
+	 */
+	public long getWrites(int player) {
+		return writes[player];
+	}
+	
+	/**
+	 * @param player the player
+	 * @return the number of forks by the player
+	 */
+	public long getForks(int player) {
+		return forks[player];
+	}
+	
+	/**
+	 * @param player the player
+	 * @return the number of the player's processes killed
+	 */
+	public long getKills(int player) {
+		return kills[player];
+	}
+	
+	/**
+	 * @param player the player
+	 * @return the number of memory faults by the player
+	 */
+	public long getFaults(int player) {
+		return faults[player];
+	}
+	
+	/**
+	 * Print the counters: the instructions retired by opcode, most
+	 * frequent first, then the totals of each player.
+	 * 
+	 * @param out the stream to print to
+	 */
+	public void dump(PrintStream out) {
+		
+		InstructionTable table = InstructionTable.getDefault();
+		long total = getRetired();
+		
+		// Sort the keys by count, insertion sort being plenty for
+		// the size of the table.
+		int keys[] = new int[InstructionTable.SIZE];
+		long counts[] = new long[InstructionTable.SIZE];
+		int n = 0;
+		for (int key = 0; key < InstructionTable.SIZE; key++) {
+			long count = getRetiredByKey(key);
+			if (count == 0) {
+				continue;
+			}
+			int i = n++;
+			while (i > 0 && counts[i - 1] < count) {
+				keys[i] = keys[i - 1];
+				counts[i] = counts[i - 1];
+				i--;
+			}
+			keys[i] = key;
+			counts[i] = count;
+		}
+		
+		out.println("Instructions retired: " + total);
+		for (int i = 0; i < n; i++) {
+			String name = table.getNameAt(keys[i]);
+			out.printf("  %-8s %12d %6.2f%%%n", (name == null ? "illegal" : name), counts[i], 100.0 * counts[i] / total);
+		}
+		
+		out.println("Player      retired      reads     writes      forks      kills     faults");
+		for (int player = 1; player < 10; player++) {
+			long retired = getRetired(player);
+			if (retired == 0 && writes[player] == 0 && kills[player] == 0) {
+				continue;
+			}
+			out.printf("%6d %12d %10d %10d %10d %10d %10d%n", player, retired, reads[player], writes[player], forks[player], kills[player], faults[player]);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,332 @@
+package com.michaelzanussi.redcode.rvm;
+
+import com.michaelzanussi.redcode.InstructionExecutor;
+import com.michaelzanussi.redcode.InstructionTable;
+
+/**
+ * A Redcode Virtual Machine with a switch-based execution engine. Rather
+ * than dispatching each instruction to its own executor, the engine decodes
+ * the <code>op</code> field (and <code>funct</code> or <code>rt</code> where
+ * needed) and runs the instruction inline, operating on the process's
+ * registers directly. The results are identical to those of <tt>RVM</tt>,
+ * so the engine may be chosen per battle simply by creating a
+ * <tt>FastRVM</tt> in place of an <tt>RVM</tt>; <tt>TestEngines</tt> runs
+ * the two side by side to check that they agree. <p>
+ *
+ * The engine implements the standard Redcode instruction set as encoded
+ * by the bundled mnemonic table. <tt>frk</tt> and <tt>syscall</tt>, whose
+ * cost is dominated by process creation and RVM queries, are handed to
+ * their shared executors.
+ *
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class FastRVM extends RVM {
+
+	private InstructionExecutor frk;		// shared frk executor
+	private InstructionExecutor syscall;	// shared syscall executor
+
+	/**
+	 * No-arg constructor. Default size is MAX_RAM.
+	 */
+	public FastRVM() {
+		super();
+		init();
+	}
+
+	/**
+	 * @param size
+	 */
+	public FastRVM(int size) {
+		super(size);
+		init();
+	}
+
+	/**
+	 * @param core the RVM memory
+	 */
+	public FastRVM(Core core) {
+		super(core);
+		init();
+	}
+
+	/**
+	 * @param size
+	 * @param wrap <code>true</code> if addresses wrap around memory
+	 */
+	public FastRVM(int size, boolean wrap) {
+		super(size, wrap);
+		init();
+	}
+
+	/**
+	 * @param core the RVM memory
+	 * @param wrap <code>true</code> if addresses wrap around memory
+	 */
+	public FastRVM(Core core, boolean wrap) {
+		super(core, wrap);
+		init();
+	}
+
+	/**
+	 * Look up the executors the engine delegates to.
+	 */
+	private void init() {
+		InstructionTable table = InstructionTable.getDefault();
+		frk = table.getExecutor(0x20 << 26);
+		syscall = table.getExecutor(0x0c);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.RVM#step(com.michaelzanussi.redcode.rvm.WarriorProcess)
+	 */
+	protected void step(WarriorProcess process) {
+
+		int instruction;
+
+		int loc = fetch(process);
+		if (loc < 0) {
+			// The fetch failed, halt the process.
+			instruction = 13;	// hlt
+		} else {
+			instruction = getWord(loc);
+		}
+
+		// now execute the instruction!
+		execute(instruction, process);
+
+		fireStepped(process, loc, instruction);
+
+	}
+
+	/**
+	 * Execute the specified 32-bit word instruction. Instructions that
+	 * do not transfer control fall through to the end of the method,
+	 * where register $0 is reset and the PC incremented.
+	 *
+	 * @param instruction the 32-bit word instruction to execute
+	 * @param process the process executing the instruction
+	 */
+	private void execute(int instruction, WarriorProcess process) {
+
+		int r[] = process.getRegisters();
+
+		// Break-up the instruction. Not every field is meaningful
+		// for every instruction.
+		int rs = (instruction >>> 21) & 0x1f;
+		int rt = (instruction >>> 16) & 0x1f;
+		int imm = (short)instruction;			// sign-extended
+		int immu = instruction & 0xffff;		// zero-extended
+
+		switch (instruction >>> 26) {
+
+		case 0: {	// R-format, use 'funct'
+
+			int rd = (instruction >>> 11) & 0x1f;
+			int shamt = (instruction >>> 6) & 0x1f;
+
+			switch (instruction & 0x3f) {
+			case 0:		// sll
+				r[rd] = r[rt] << shamt;
+				break;
+			case 2:		// srl
+				r[rd] = r[rt] >>> shamt;
+				break;
+			case 3:		// sra
+				r[rd] = r[rt] >> shamt;
+				break;
+			case 4:		// sllv
+				r[rd] = r[rt] << r[rs];
+				break;
+			case 6:		// srlv
+				r[rd] = r[rt] >>> r[rs];
+				break;
+			case 7:		// srav
+				r[rd] = r[rt] >> r[rs];
+				break;
+			case 8:		// jr
+				process.setPC(r[rs]);
+				return;
+			case 12:	// syscall
+				syscall.exec(instruction, process, this);
+				return;
+			case 16:	// mfhi
+				r[rd] = process.getHI();
+				break;
+			case 18:	// mflo
+				r[rd] = process.getLO();
+				break;
+			case 19:	// mfpc
+				r[rs] = process.getPC();
+				break;
+			case 24: {	// mult
+				long product = (long)r[rs] * (long)r[rt];
+				process.setLO((int)product);
+				process.setHI((int)(product >> 32));
+				break;
+			}
+			case 27: {	// divu
+				int s = r[rs];
+				int t = r[rt];
+				if (t != 0) {
+					process.setLO(Math.abs(s / t));
+					process.setHI(Math.abs(s % t));
+				} else {
+					process.setLO(0);
+					process.setHI(0);
+				}
+				break;
+			}
+			case 32:	// add
+			case 33:	// addu
+				r[rd] = r[rs] + r[rt];
+				break;
+			case 34:	// sub
+			case 35:	// subu
+				r[rd] = r[rs] - r[rt];
+				break;
+			case 36:	// and
+				r[rd] = r[rs] & r[rt];
+				break;
+			case 37:	// or
+				r[rd] = r[rs] | r[rt];
+				break;
+			case 38:	// xor
+				r[rd] = r[rs] ^ r[rt];
+				break;
+			case 39:	// nor
+				r[rd] = ~(r[rs] | r[rt]);
+				break;
+			case 42:	// slt
+			case 43:	// sltu
+				r[rd] = (r[rs] < r[rt] ? 1 : 0);
+				break;
+			default:	// hlt, or an illegal instruction
+				process.kill();
+				break;
+			}
+			break;
+
+		}
+
+		case 1:		// bltz, bgez: use 'rt'
+			if (rt == 0) {
+				branch(process, r[rs] < 0, imm);
+			} else if (rt == 1) {
+				branch(process, r[rs] >= 0, imm);
+			} else {
+				// illegal instruction
+				process.kill();
+				break;
+			}
+			return;
+
+		case 2:		// j
+			process.setPC(process.getPC() + ((instruction << 6) >> 6));
+			return;
+
+		case 4:		// beq
+			branch(process, r[rs] == r[rt], imm);
+			return;
+
+		case 5:		// bne
+			branch(process, r[rs] != r[rt], imm);
+			return;
+
+		case 6:		// blez
+			branch(process, r[rs] <= 0, imm);
+			return;
+
+		case 7:		// bgtz
+			branch(process, r[rs] > 0, imm);
+			return;
+
+		case 8:		// addi
+			r[rt] = r[rs] + imm;
+			break;
+
+		case 9:		// addiu
+			r[rt] = r[rs] + immu;
+			break;
+
+		case 10:	// slti
+			r[rt] = (r[rs] < imm ? 1 : 0);
+			break;
+
+		case 11:	// sltiu
+			r[rt] = (r[rs] < immu ? 1 : 0);
+			break;
+
+		case 12:	// andi
+			r[rt] = r[rs] & immu;
+			break;
+
+		case 13:	// ori
+			r[rt] = r[rs] | immu;
+			break;
+
+		case 14:	// xori
+			r[rt] = r[rs] ^ immu;
+			break;
+
+		case 32:	// frk
+			frk.exec(instruction, process, this);
+			return;
+
+		case 33:	// close
+		case 34:	// rfrk
+		case 36:	// open
+		case 37:	// rsw
+			break;
+
+		case 35: {	// lw
+			int loc = translate(r[rs] + imm);
+			if (loc == FAULT) {
+				fault(process, r[rs] + imm);
+			} else {
+				r[rt] = load(loc, process);
+			}
+			break;
+		}
+
+		case 43: {	// sw
+			int loc = translate(r[rs] + imm);
+			if (loc == FAULT) {
+				fault(process, r[rs] + imm);
+			} else {
+				store(loc, r[rt], process.getProcessGroup(), process.getPID());
+			}
+			break;
+		}
+
+		default:	// illegal instruction
+			process.kill();
+			break;
+
+		}
+
+		// Register $0 always contains 0.
+		r[0] = 0;
+
+		// Increment PC.
+		process.incrementPC();
+
+	}
+
+	/**
+	 * Conditionally branch the number of instructions specified by the
+	 * offset, otherwise increment the PC.
+	 *
+	 * @param process the process executing the branch
+	 * @param taken <code>true</code> if the branch is taken
+	 * @param offset the branch offset
+	 */
+	private static void branch(WarriorProcess process, boolean taken, int offset) {
+		if (taken) {
+			process.setPC(process.getPC() + offset);
+		} else {
+			process.incrementPC();
+		}
+	}
+
+}
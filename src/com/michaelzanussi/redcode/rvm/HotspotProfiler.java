@@ -0,0 +1,380 @@
+package com.michaelzanussi.redcode.rvm;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import com.michaelzanussi.redcode.Assembler;
+import com.michaelzanussi.redcode.BadInstructionException;
+import com.michaelzanussi.redcode.RedcodeInstruction;
+
+/**
+ * A battle listener counting how often each memory location is executed,
+ * and by which player, and exporting the hot regions of memory as an
+ * annotated disassembly. A step whose fetch failed executes nothing, 
+ * and is not counted, as with <tt>ExecutionCounters</tt>. <p>
+ *
+ * Counts are kept in pages of 4096 locations, as <tt>PagedCore</tt>
+ * keeps memory, and each player's counts within a page are allocated
+ * the first time the player executes a location in the page, so
+ * profiling a large memory costs space only for the regions run, and
+ * never more than a count per location and player. <p>
+ *
+ * Counts by process may be kept as well. Since PIDs are never reused,
+ * the space these take grows with the number of processes a battle
+ * creates; a process's counts are kept in blocks of 64 locations,
+ * allocated as it executes them, so a process costs space only for
+ * the code it runs. <p>
+ *
+ * The disassembly is of the memory as it is when exported, which for a
+ * warrior that modifies itself may differ from what was executed.
+ *
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class HotspotProfiler extends BattleAdapter {
+
+	private static final int PAGE_BITS = 12;		// 4096 locations per page
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+	private static final int BLOCK_BITS = 6;		// 64 locations per block
+	private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+	private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+	// Regions separated by no more than this many locations never
+	// executed are exported as one.
+	private static final int GAP = 4;
+
+	// The most players or processes listed for a location.
+	private static final int MAX_LISTED = 4;
+
+	// The share of all instructions executed, as a percentage, a region
+	// must account for to be exported by default.
+	private static final double THRESHOLD = 1.0;
+
+	private RVM rvm;				// the RVM profiled
+	private boolean byProcess;		// count by process too?
+	private Page pages[];			// the pages, or null if not executed
+	private long total;				// instructions executed
+
+	/**
+	 * Profile the specified RVM, counting by player.
+	 *
+	 * @param rvm the RVM profiled
+	 */
+	public HotspotProfiler(RVM rvm) {
+		this(rvm, false);
+	}
+
+	/**
+	 * @param rvm the RVM profiled
+	 * @param byProcess <code>true</code> to count by process as well as
+	 * by player
+	 */
+	public HotspotProfiler(RVM rvm, boolean byProcess) {
+		this.rvm = rvm;
+		this.byProcess = byProcess;
+		reset();
+	}
+
+	/**
+	 * Set every count to zero.
+	 */
+	public void reset() {
+		pages = new Page[(int)(((long)rvm.memsize() + PAGE_MASK) >>> PAGE_BITS)];
+		total = 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#stepped(com.michaelzanussi.redcode.rvm.WarriorProcess, int, int)
+	 */
+	public void stepped(WarriorProcess process, int loc, int instruction) {
+
+		if (loc == RVM.FAULT) {
+			return;
+		}
+
+		int player = process.getProcessGroup().getPlayer();
+		int offset = loc & PAGE_MASK;
+
+		Page page = pages[loc >>> PAGE_BITS];
+		if (page == null) {
+			pages[loc >>> PAGE_BITS] = page = new Page();
+		}
+
+		long hits[] = page.hits[player];
+		if (hits == null) {
+			page.hits[player] = hits = new long[PAGE_SIZE];
+		}
+		hits[offset]++;
+		total++;
+
+		if (byProcess) {
+			int pid = process.getPID();
+			long byPID[][][] = page.byPID[player];
+			if (byPID == null || pid >= byPID.length) {
+				long grown[][][] = new long[Math.max(16, pid * 2)][][];
+				if (byPID != null) {
+					System.arraycopy(byPID, 0, grown, 0, byPID.length);
+				}
+				page.byPID[player] = byPID = grown;
+			}
+			if (byPID[pid] == null) {
+				byPID[pid] = new long[PAGE_SIZE >>> BLOCK_BITS][];
+			}
+			long block[] = byPID[pid][offset >>> BLOCK_BITS];
+			if (block == null) {
+				byPID[pid][offset >>> BLOCK_BITS] = block = new long[BLOCK_SIZE];
+			}
+			block[offset & BLOCK_MASK]++;
+		}
+
+	}
+
+	/**
+	 * Returns <code>true</code> if counts are kept by process.
+	 *
+	 * @return <code>true</code> if counts are kept by process
+	 */
+	public boolean isByProcess() {
+		return byProcess;
+	}
+
+	/**
+	 * Returns the number of instructions executed.
+	 *
+	 * @return the number of instructions executed
+	 */
+	public long getHits() {
+		return total;
+	}
+
+	/**
+	 * Returns the number of times the specified location was executed.
+	 *
+	 * @param loc the memory location
+	 * @return the number of times executed
+	 */
+	public long getHits(int loc) {
+		long n = 0;
+		for (int player = 1; player < 10; player++) {
+			n += getHits(loc, player);
+		}
+		return n;
+	}
+
+	/**
+	 * Returns the number of times the specified location was executed
+	 * by the specified player.
+	 *
+	 * @param loc the memory location
+	 * @param player the player
+	 * @return the number of times executed
+	 */
+	public long getHits(int loc, int player) {
+		Page page = pages[loc >>> PAGE_BITS];
+		if (page == null || page.hits[player] == null) {
+			return 0;
+		}
+		return page.hits[player][loc & PAGE_MASK];
+	}
+
+	/**
+	 * Returns the number of times the specified location was executed
+	 * by the specified process.
+	 *
+	 * @param loc the memory location
+	 * @param player the player
+	 * @param pid the PID
+	 * @return the number of times executed
+	 * @throws IllegalStateException If counts are not kept by process.
+	 */
+	public long getHits(int loc, int player, int pid) {
+		if (!byProcess) {
+			throw new IllegalStateException("Counts are not kept by process");
+		}
+		Page page = pages[loc >>> PAGE_BITS];
+		if (page == null) {
+			return 0;
+		}
+		long byPID[][][] = page.byPID[player];
+		if (byPID == null || pid < 0 || pid >= byPID.length || byPID[pid] == null) {
+			return 0;
+		}
+		long block[] = byPID[pid][(loc & PAGE_MASK) >>> BLOCK_BITS];
+		return (block == null ? 0 : block[loc & BLOCK_MASK]);
+	}
+
+	/**
+	 * Print an annotated disassembly of each hot region of memory, one
+	 * accounting for at least 1% of all instructions executed.
+	 *
+	 * @param out the stream to print to
+	 * @see #export(PrintStream, double)
+	 */
+	public void export(PrintStream out) {
+		export(out, THRESHOLD);
+	}
+
+	/**
+	 * Print an annotated disassembly of each region of memory executed
+	 * that accounts for at least the specified share of all instructions
+	 * executed: for each location, the number of times it was executed
+	 * and its share of all instructions executed, the instruction it
+	 * holds, and the players that executed it most, as
+	 * <i>player:hits</i>, or if counting by process, the processes that
+	 * executed it most, as <i>player.PID:hits</i>.
+	 *
+	 * @param out the stream to print to
+	 * @param threshold the least share of all instructions executed, as
+	 * a percentage, a region must account for to be printed; 0 prints
+	 * every region executed
+	 */
+	public void export(PrintStream out, double threshold) {
+
+		Assembler asm = new Assembler();
+
+		out.println("Instructions executed: " + total);
+
+		int first = -1;			// first location of the region
+		int last = -GAP - 2;	// last location executed
+		long sum = 0;			// instructions executed in the region
+		int shown = 0;			// regions printed
+		int regions = 0;		// regions executed
+		for (int page = 0; page < pages.length; page++) {
+			if (pages[page] == null) {
+				continue;
+			}
+			int end = (int)Math.min((long)(page + 1) << PAGE_BITS, rvm.memsize());
+			for (int loc = page << PAGE_BITS; loc < end; loc++) {
+				long n = getHits(loc);
+				if (n == 0) {
+					continue;
+				}
+				if (loc - last > GAP + 1) {
+					// Finish the region, and start a new one.
+					if (first >= 0) {
+						regions++;
+						if (hot(sum, threshold)) {
+							region(out, asm, first, last);
+							shown++;
+						}
+					}
+					first = loc;
+					sum = 0;
+				}
+				sum += n;
+				last = loc;
+			}
+		}
+		if (first >= 0) {
+			regions++;
+			if (hot(sum, threshold)) {
+				region(out, asm, first, last);
+				shown++;
+			}
+		}
+
+		out.println();
+		out.println("Regions shown: " + shown + " of " + regions);
+
+	}
+
+	/**
+	 * Returns <code>true</code> if a region executing the specified
+	 * number of instructions is hot enough to export.
+	 */
+	private boolean hot(long sum, double threshold) {
+		return 100.0 * sum >= threshold * total;
+	}
+
+	/**
+	 * Print the annotated disassembly of a region.
+	 */
+	private void region(PrintStream out, Assembler asm, int first, int last) {
+		out.println();
+		out.println("      loc         hits       %  instruction  # " + (byProcess ? "player.PID:hits" : "player:hits"));
+		for (int loc = first; loc <= last; loc++) {
+			line(out, asm, loc, getHits(loc));
+		}
+	}
+
+	/**
+	 * Print a line of the annotated disassembly.
+	 */
+	private void line(PrintStream out, Assembler asm, int loc, long n) {
+
+		String text;
+		try {
+			RedcodeInstruction rci = asm.getRedcodeInstruction(rvm.getWord(loc));
+			text = (rci == null ? "(illegal)" : rci.toString());
+		} catch (BadInstructionException e) {
+			text = "(illegal)";
+		}
+
+		StringBuilder sb = new StringBuilder(String.format("%9d %12d %7.2f  ", loc, n, (total == 0 ? 0.0 : 100.0 * n / total)));
+		sb.append(text);
+
+		// List the players or processes, most frequent first, sorting
+		// by insertion as those sharing a location are few.
+		int players[] = new int[8];
+		int pids[] = new int[8];
+		long counts[] = new long[8];
+		int k = 0;
+		Page page = pages[loc >>> PAGE_BITS];
+		for (int player = 1; player < 10; player++) {
+			if (page == null || page.hits[player] == null) {
+				continue;
+			}
+			int pidEnd = (!byProcess ? 1 : page.byPID[player] == null ? 0 : page.byPID[player].length);
+			for (int pid = (byProcess ? 1 : 0); pid < pidEnd; pid++) {
+				long h = (byProcess ? getHits(loc, player, pid) : getHits(loc, player));
+				if (h == 0) {
+					continue;
+				}
+				if (k == counts.length) {
+					players = Arrays.copyOf(players, k * 2);
+					pids = Arrays.copyOf(pids, k * 2);
+					counts = Arrays.copyOf(counts, k * 2);
+				}
+				int i = k++;
+				while (i > 0 && counts[i - 1] < h) {
+					players[i] = players[i - 1];
+					pids[i] = pids[i - 1];
+					counts[i] = counts[i - 1];
+					i--;
+				}
+				players[i] = player;
+				pids[i] = pid;
+				counts[i] = h;
+			}
+		}
+		if (k > 0) {
+			sb.append("  #");
+		}
+		for (int i = 0; i < k && i < MAX_LISTED; i++) {
+			sb.append(' ').append(players[i]);
+			if (byProcess) {
+				sb.append('.').append(pids[i]);
+			}
+			sb.append(':').append(counts[i]);
+		}
+		if (k > MAX_LISTED) {
+			sb.append(" (+").append(k - MAX_LISTED).append(" more)");
+		}
+
+		out.println(sb);
+
+	}
+
+	/**
+	 * A page of counts.
+	 */
+	private static class Page {
+
+		long hits[][] = new long[10][];				// hits, by player and offset
+		long byPID[][][][] = new long[10][][][];	// hits, by player, PID, block and offset
+
+	}
+
+}
@@ -0,0 +1,169 @@
+package com.michaelzanussi.redcode.rvm;
+
+import com.michaelzanussi.redcode.InstructionExecutor;
+
+/**
+ * Recognizes common Redcode idioms as instructions are decoded into the
+ * RVM's decode cache, and replaces their executors with cheaper ones that
+ * have the same effect:
+ * <ul>
+ * <li><tt>beq $s, $s, offset</tt>, the usual unconditional branch, always
+ * branches without reading registers.</li>
+ * <li><tt>bne $s, $s, offset</tt> never branches.</li>
+ * <li><tt>addi</tt>, <tt>addiu</tt> or <tt>ori</tt> with <tt>rs</tt> of
+ * <tt>$0</tt> loads the immediate value into <tt>rt</tt>.</li>
+ * <li>an arithmetic, logical or shift instruction whose destination is
+ * <tt>$0</tt>, such as <tt>sll $0, $0, 0</tt>, does nothing.</li>
+ * </ul>
+ * Each replacement still retires exactly one instruction and leaves the
+ * PC exactly where the original instruction would, so scheduling, cycle
+ * counts and ownership checks are unaffected.
+ *
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+final class Idioms {
+
+	// The shared idiom executors.
+	private static final InstructionExecutor BRANCH = new Branch();
+	private static final InstructionExecutor NOP = new Nop();
+	private static final InstructionExecutor LOAD_SIGNED = new LoadImmediate(true);
+	private static final InstructionExecutor LOAD_UNSIGNED = new LoadImmediate(false);
+
+	/**
+	 * No instances.
+	 */
+	private Idioms() {
+
+	}
+
+	/**
+	 * Returns an executor for the 32-bit word passed to the method that is
+	 * cheaper than, but equivalent to, the instruction's own executor, or
+	 * the instruction's own executor if the word is not a known idiom.
+	 *
+	 * @param instruction the 32-bit word instruction.
+	 * @param executor the instruction's own executor.
+	 * @return the executor to cache for the instruction.
+	 */
+	static InstructionExecutor specialize(int instruction, InstructionExecutor executor) {
+
+		int rs = (instruction >>> 21) & 0x1f;
+		int rt = (instruction >>> 16) & 0x1f;
+
+		switch (instruction >>> 26) {
+		case 0:
+			// R-format: arithmetic, logical and shift instructions
+			// writing to $0 do nothing.
+			int rd = (instruction >>> 11) & 0x1f;
+			if (rd == 0 && writesRd(instruction & 0x3f)) {
+				return NOP;
+			}
+			break;
+		case 4:		// beq
+			if (rs == rt) {
+				return BRANCH;
+			}
+			break;
+		case 5:		// bne
+			if (rs == rt) {
+				return NOP;
+			}
+			break;
+		case 8:		// addi
+			if (rt == 0) {
+				return NOP;
+			} else if (rs == 0) {
+				return LOAD_SIGNED;
+			}
+			break;
+		case 9:		// addiu
+		case 13:	// ori
+			if (rt == 0) {
+				return NOP;
+			} else if (rs == 0) {
+				return LOAD_UNSIGNED;
+			}
+			break;
+		}
+
+		return executor;
+
+	}
+
+	/**
+	 * Returns <code>true</code> if the R-format instruction with the
+	 * specified <code>funct</code> only computes a value into
+	 * <code>rd</code>, with no other effect.
+	 *
+	 * @param funct the function.
+	 * @return <code>true</code> if the instruction only writes <code>rd</code>.
+	 */
+	private static boolean writesRd(int funct) {
+		switch (funct) {
+		case 0:		// sll
+		case 2:		// srl
+		case 3:		// sra
+		case 4:		// sllv
+		case 6:		// srlv
+		case 7:		// srav
+		case 16:	// mfhi
+		case 18:	// mflo
+		case 32:	// add
+		case 33:	// addu
+		case 34:	// sub
+		case 35:	// subu
+		case 36:	// and
+		case 37:	// or
+		case 38:	// xor
+		case 39:	// nor
+		case 42:	// slt
+		case 43:	// sltu
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * An unconditional relative branch.
+	 */
+	private static class Branch implements InstructionExecutor {
+
+		public void exec(int instruction, WarriorProcess process, RVM rvm) {
+			process.setPC(process.getPC() + (short)instruction);
+		}
+
+	}
+
+	/**
+	 * An instruction with no effect other than incrementing the PC.
+	 */
+	private static class Nop implements InstructionExecutor {
+
+		public void exec(int instruction, WarriorProcess process, RVM rvm) {
+			process.incrementPC();
+		}
+
+	}
+
+	/**
+	 * Loads the immediate value into register <code>rt</code>.
+	 */
+	private static class LoadImmediate implements InstructionExecutor {
+
+		private boolean signed;		// sign-extend the immediate value?
+
+		LoadImmediate(boolean signed) {
+			this.signed = signed;
+		}
+
+		public void exec(int instruction, WarriorProcess process, RVM rvm) {
+			int imm = (signed ? (short)instruction : instruction & 0xffff);
+			process.setRegister((instruction >>> 16) & 0x1f, imm);
+			process.incrementPC();
+		}
+
+	}
+
+}
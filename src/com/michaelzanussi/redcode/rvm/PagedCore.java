@@ -0,0 +1,169 @@
+package com.michaelzanussi.redcode.rvm;
+
+import java.util.Arrays;
+
+/**
+ * A sparse core for arenas far larger than the programs loaded into
+ * them. The core is divided into fixed-size pages which are created on
+ * first write; until then, every page shares a single page holding 
+ * <tt>hlt</tt> at each location, owned by no one. Memory thus grows
+ * with the pages actually written rather than with the core size.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class PagedCore implements Core {
+
+	static final int PAGE_BITS = 12;				// 4096 locations per page
+	static final int PAGE_SIZE = 1 << PAGE_BITS;
+	static final int PAGE_MASK = PAGE_SIZE - 1;
+	
+	// The page shared by every page not yet written. It is never written.
+	private static final Page EMPTY = new Page();
+	
+	private Page pages[];		// the pages
+	private int size;			// number of locations
+	
+	/**
+	 * @param size the number of locations
+	 */
+	public PagedCore(int size) {
+		
+		if (size < 1) {
+			throw new IllegalArgumentException("Invalid core size: " + size);
+		}
+		
+		this.size = size;
+		
+		// Every page starts out as the empty page.
+		pages = new Page[(int)(((long)size + PAGE_MASK) >>> PAGE_BITS)];
+		Arrays.fill(pages, EMPTY);
+		
+	}
+	
+	/**
+	 * Returns the number of pages created so far.
+	 * 
+	 * @return the number of pages written
+	 */
+	public int getPagesInUse() {
+		int count = 0;
+		for (Page page : pages) {
+			if (page != EMPTY) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#size()
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#getWord(int)
+	 */
+	public int getWord(int loc) {
+		return pages[loc >>> PAGE_BITS].words[loc & PAGE_MASK];
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#getOwner(int)
+	 */
+	public int getOwner(int loc) {
+		return pages[loc >>> PAGE_BITS].owners[loc & PAGE_MASK];
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#getPID(int)
+	 */
+	public int getPID(int loc) {
+		return pages[loc >>> PAGE_BITS].pids[loc & PAGE_MASK];
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#set(int, int, int, int)
+	 */
+	public void set(int loc, int word, int owner, int pid) {
+		Page page = writable(loc);
+		int i = loc & PAGE_MASK;
+		page.words[i] = word;
+		page.owners[i] = (byte)owner;
+		page.pids[i] = pid;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#set(int, int[], int, int, int, int)
+	 */
+	public void set(int loc, int words[], int offset, int length, int owner, int pid) {
+		while (length > 0) {
+			// Copy as much as fits in the page.
+			Page page = writable(loc);
+			int i = loc & PAGE_MASK;
+			int n = Math.min(length, PAGE_SIZE - i);
+			System.arraycopy(words, offset, page.words, i, n);
+			Arrays.fill(page.owners, i, i + n, (byte)owner);
+			Arrays.fill(page.pids, i, i + n, pid);
+			loc += n;
+			offset += n;
+			length -= n;
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#setWord(int, int)
+	 */
+	public void setWord(int loc, int word) {
+		writable(loc).words[loc & PAGE_MASK] = word;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#setOwner(int, int)
+	 */
+	public void setOwner(int loc, int owner) {
+		writable(loc).owners[loc & PAGE_MASK] = (byte)owner;
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.Core#setPID(int, int)
+	 */
+	public void setPID(int loc, int pid) {
+		writable(loc).pids[loc & PAGE_MASK] = pid;
+	}
+	
+	/**
+	 * Returns the page holding the specified location, creating it if
+	 * it is still the shared empty page.
+	 * 
+	 * @param loc the memory location
+	 * @return the page
+	 */
+	private Page writable(int loc) {
+		int index = loc >>> PAGE_BITS;
+		Page page = pages[index];
+		if (page == EMPTY) {
+			page = new Page();
+			pages[index] = page;
+		}
+		return page;
+	}
+	
+	/**
+	 * A page of memory, laid out as parallel arrays.
+	 */
+	private static class Page {
+		
+		int words[] = new int[PAGE_SIZE];
+		byte owners[] = new byte[PAGE_SIZE];
+		int pids[] = new int[PAGE_SIZE];
+		
+		Page() {
+			Arrays.fill(words, 13);		// hlt
+		}
+		
+	}
+	
+}
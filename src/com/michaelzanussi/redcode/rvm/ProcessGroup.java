@@ -1,13 +1,24 @@
 package com.michaelzanussi.redcode.rvm;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
-import com.michaelzanussi.redcode.RedcodeInstruction;
-
 /**
  * The ProcessGroup, one for each player. The ProcessGroup contains
- * one or more Processes, one for each Redcode warrior loaded.
+ * one or more Processes, one for each Redcode warrior loaded. <p>
+ * 
+ * The runnable processes are kept in a run queue: a ring of slots,
+ * doubly linked through arrays, in the order the processes were 
+ * created. Processes are stepped round-robin around the ring. A new
+ * process joins at the end of the ring, and a killed process leaves
+ * it at once, its slot being reused by the next process created; so
+ * dead processes are never stepped over. The group still lists every
+ * process it has created, dead or alive, in the order created, which
+ * is also the order of their PIDs. A group may be
+ * given a limit on the number of its runnable processes, beyond 
+ * which <tt>frk</tt> creates no new process.
  * 
  * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
  * @version 1.0 (8 April 2016)
@@ -15,11 +26,22 @@ import com.michaelzanussi.redcode.RedcodeInstruction;
 public class ProcessGroup {
 
 	private Integer player;
-	private List<WarriorProcess> processes;
-	private int next;
+	private WarriorProcess slots[];	// run queue: the process in each slot,
+	private int nextSlot[];			// the next slot in the ring (or free list),
+	private int prevSlot[];			// and the previous slot in the ring
+	private int free;				// first free slot, or -1 if none
+	private int used;				// number of slots ever used
+	private int head;				// first slot in the ring, or -1 if empty
+	private int next;				// next slot to execute, or -1 if empty
 	private int lastProcNo;
+	private int runnable;			// number of runnable processes
+	private List<WarriorProcess> processes;	// every process created
+	private int limit;				// maximum runnable processes, or 0
+	private WarriorProcess stepping;	// process being stepped, if any
 	private RVM rvm;
 	
+	private static final int INITIAL_SLOTS = 8;
+	
 	/**
 	 * @param player
 	 * @param rvm
@@ -36,9 +58,17 @@ public class ProcessGroup {
 		
 		this.player = player;
 		this.rvm = rvm;
-		processes = new ArrayList<WarriorProcess>();
-		next = 0;
+		slots = new WarriorProcess[INITIAL_SLOTS];
+		nextSlot = new int[INITIAL_SLOTS];
+		prevSlot = new int[INITIAL_SLOTS];
+		free = -1;
+		used = 0;
+		head = -1;
+		next = -1;
 		lastProcNo = 0;
+		runnable = 0;
+		processes = new ArrayList<WarriorProcess>();
+		limit = 0;
 	}
 	
 	/**
@@ -49,17 +79,121 @@ public class ProcessGroup {
 	}
 	
 	/**
+	 * @return
+	 */
+	public RVM getRVM() {
+		return rvm;
+	}
+	
+	/**
+	 * Add the process to the end of the run queue.
+	 * 
 	 * @param process
 	 */
 	public void addProcess(WarriorProcess process) {
+		
 		processes.add(process);
+		
+		if (!process.isRunnable()) {
+			return;
+		}
+		
+		// Take a free slot, or a new one.
+		int slot;
+		if (free >= 0) {
+			slot = free;
+			free = nextSlot[slot];
+		} else {
+			if (used == slots.length) {
+				int length = slots.length * 2;
+				slots = Arrays.copyOf(slots, length);
+				nextSlot = Arrays.copyOf(nextSlot, length);
+				prevSlot = Arrays.copyOf(prevSlot, length);
+			}
+			slot = used++;
+		}
+		slots[slot] = process;
+		process.setSlot(slot);
+		
+		// Link the slot in at the end of the ring, just before the head.
+		if (head < 0) {
+			nextSlot[slot] = slot;
+			prevSlot[slot] = slot;
+			head = slot;
+			next = slot;
+		} else {
+			int tail = prevSlot[head];
+			nextSlot[tail] = slot;
+			prevSlot[slot] = tail;
+			nextSlot[slot] = head;
+			prevSlot[head] = slot;
+		}
+		
+		if (runnable++ == 0) {
+			rvm.groupStarted(this);
+		}
+		
+		// A process created during a step was forked.
+		if (stepping != null) {
+			rvm.processForked(stepping, process);
+		}
+		
+	}
+	
+	/**
+	 * Called by a process of this group when it is killed. The process
+	 * leaves the run queue; if it was next to execute, its successor
+	 * becomes next.
+	 * 
+	 * @param process the process killed
+	 */
+	void processKilled(WarriorProcess process) {
+		
+		int slot = process.getSlot();
+		
+		// Unlink the slot from the ring.
+		if (nextSlot[slot] == slot) {
+			head = -1;
+			next = -1;
+		} else {
+			int succ = nextSlot[slot];
+			int pred = prevSlot[slot];
+			nextSlot[pred] = succ;
+			prevSlot[succ] = pred;
+			if (head == slot) {
+				head = succ;
+			}
+			if (next == slot) {
+				next = succ;
+			}
+		}
+		
+		// Free the slot.
+		slots[slot] = null;
+		nextSlot[slot] = free;
+		free = slot;
+		
+		if (--runnable == 0) {
+			rvm.groupStopped(this);
+		}
+		
+		rvm.processKilled(process);
+		
 	}
 	
 	/**
+	 * Returns the position in <code>getRunnableProcesses()</code> of the process
+	 * to execute next. Intended for the test app; takes time linear in
+	 * the number of runnable processes.
+	 * 
 	 * @return
 	 */
 	public int getNext() {
-		return next;
+		int count = 0;
+		for (int slot = head; slot >= 0 && slot != next; slot = nextSlot[slot]) {
+			count++;
+		}
+		return (next < 0 ? 0 : count);
 	}
 	
 	/**
@@ -70,6 +204,9 @@ public class ProcessGroup {
 	}
 
 	/**
+	 * Returns the number of processes created in this group, including
+	 * those since killed.
+	 * 
 	 * @return
 	 */
 	public int getNumberOfProcesses() {
@@ -80,35 +217,70 @@ public class ProcessGroup {
 	 * @return
 	 */
 	public int getNumberOfRunnableProcesses() {
-		int count = 0;
-		for (WarriorProcess process : processes) {
-			if (process.isRunnable()) {
-				count++;
-			}
-		}
-		return count;
+		return runnable;
 	}
 	
 	/**
+	 * Returns every process created in this group, including those since
+	 * killed, in the order created: the process with PID <i>n</i> is at
+	 * position <i>n</i> - 1.
+	 * 
 	 * @return
 	 */
 	public List<WarriorProcess> getProcesses() {
+		return Collections.unmodifiableList(processes);
+	}
+	
+	/**
+	 * Returns the runnable processes, in run queue order.
+	 * 
+	 * @return
+	 */
+	public List<WarriorProcess> getRunnableProcesses() {
+		List<WarriorProcess> processes = new ArrayList<WarriorProcess>(runnable);
+		for (int i = 0, slot = head; i < runnable; i++, slot = nextSlot[slot]) {
+			processes.add(slots[slot]);
+		}
 		return processes;
 	}
 	
 	/**
+	 * Returns the maximum number of runnable processes.
+	 * 
+	 * @return the limit, or 0 if the group is unlimited
+	 */
+	public int getProcessLimit() {
+		return limit;
+	}
+	
+	/**
+	 * Sets the maximum number of runnable processes. Once the group
+	 * reaches the limit, <tt>frk</tt> creates no new process until a 
+	 * process of the group is killed.
+	 * 
+	 * @param limit the limit, or 0 for no limit
+	 */
+	public void setProcessLimit(int limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("Illegal process limit: " + limit);
+		}
+		this.limit = limit;
+	}
+	
+	/**
+	 * @return <code>true</code> if the group has reached its process limit
+	 */
+	public boolean isFull() {
+		return limit > 0 && runnable >= limit;
+	}
+	
+	/**
+	 * The score is the number of RVM locations owned by the player.
+	 * 
 	 * @return
 	 */
 	public int score() {
-		int score = 0;
-		for (int i = 0; i < rvm.memsize(); i++) {
-			if (rvm.getMemory(i).getProcessGroup() != null) {
-				if (rvm.getMemory(i).getProcessGroup().getPlayer() == player) {
-					score++;
-				}
-			}
-		}
-		return score;
+		return (player == null ? 0 : rvm.getOwned(player));
 	}
 	
 	/**
@@ -118,102 +290,38 @@ public class ProcessGroup {
 	 * @return
 	 */
 	public boolean isRunnable() {
-		for (WarriorProcess process : processes) {
-			if (process.isRunnable()) {
-				return true;
-			}
-		}
-		return false;
+		return runnable > 0;
 	}
 	
 	/**
-	 * @return
+	 * Execute the next process in the run queue.
+	 * 
+	 * @return <code>false</code> if no process was runnable
 	 */
 	public boolean exec() {
 		
-		int count = 0;
+		if (next < 0) {
+			// No processes are runnable.
+			return false;
+		}
 		
-		while (count < processes.size()) {
-			
-			WarriorProcess process = processes.get(next);
-			
-			if (process.isRunnable()) {
-				
-				// DEBUG:
-				System.out.println("p" + (next+1));
-				
-				Integer instruction = null;
-				
-				try {
-					// get pc for next instruction to execute
-					int pc = process.getPC();
-					
-					// DEBUG:
-					System.out.print("\t\tpc:" + pc + " ");
-					
-					// retrieve cell at memory location point to by pc
-					Cell cell = rvm.getMemory(pc);
-					
-					// DEBUG:
-					System.out.print("owner:" + (cell.getProcessGroup() == null ? 0 : cell.getProcessGroup().getPlayer()) + " ");
-					
-					// extract the instruction to execute
-					instruction = cell.getInstruction();
-					
-					// Check if cell is owned by another player.
-					// If not, then halt the process.
-					if (cell.getProcessGroup() != null) {
-						Integer cp = cell.getProcessGroup().getPlayer();
-						if (cp != player) {
-							instruction = 13;	// hlt
-						}
-					}
-					
-				} catch (IndexOutOfBoundsException e) {
-					// An attempt to access invalid memory has
-					// occurred, halt the process.
-					instruction = 13;	// hlt
-				}
-				
-				// DEBUG:
-				System.out.print("inst:" + instruction + " ");
-				
-				// return the Redcode instruction
-				RedcodeInstruction rci = process.getInstruction(instruction);
-				
-				// DEBUG:
-				System.out.print(rci);
-				
-				lastProcNo = next;		// for test app
-				
-				// now execute the instruction!
-				rci.exec(process, rvm);
-				next = (next == processes.size() - 1 ? 0 : next + 1);
-				
-				// DEBUG:
-				System.out.println();
-				
-				process.dump(); System.out.println();
-				
-				return true;
-				
-			} else {
-				
-				// DEBUG:
-				System.out.print("p" + (next+1));
-				
-				// DEBUG:
-				System.out.println("\t\tNO LONGER RUNNABLE!");
-				
-				count++;
-				next = (next == processes.size() - 1 ? 0 : next + 1);
-				
-			}
-			
+		int slot = next;
+		WarriorProcess process = slots[slot];
+		
+		lastProcNo = process.getPID() - 1;		// for test app
+		
+		// fetch and execute the next instruction!
+		stepping = process;
+		rvm.step(process);
+		stepping = null;
+		
+		// Move on to the next process. A process killed during the
+		// step has already handed its turn to its successor.
+		if (process.isRunnable()) {
+			next = nextSlot[slot];
 		}
 		
-		// Cycled through all processes and none were runnable.
-		return false;
+		return true;
 		
 	}
 	
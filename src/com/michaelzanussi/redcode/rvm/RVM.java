@@ -2,21 +2,67 @@ package com.michaelzanussi.redcode.rvm;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import com.michaelzanussi.redcode.Assembler;
+import com.michaelzanussi.redcode.InstructionExecutor;
+import com.michaelzanussi.redcode.InstructionTable;
 
 /**
- * A Redcode Virtual Machine.
+ * A Redcode Virtual Machine. <p>
+ * 
+ * RVM memory is held in a <tt>Core</tt>, which stores the 32-bit word
+ * at each location, the player owning it (0 if none) and the PID of the
+ * process that wrote it. By default the core is an <tt>ArrayCore</tt> on
+ * the Java heap, or a sparse <tt>PagedCore</tt> if larger than MAX_RAM;
+ * any other core, such as a memory-mapped <tt>BufferCore</tt>, may be
+ * supplied when the RVM is created. 
+ * <code>getMemory()</code> returns a <tt>Cell</tt> view onto a single
+ * location. <p>
+ * 
+ * Addresses are either bounded or wrapping. In the bounded mode, the 
+ * default, a process accessing an address outside of memory is killed.
+ * In the wrapping mode, which requires a power-of-two memory size, 
+ * addresses wrap around memory as in classic Core War, and a process 
+ * is never killed for an out-of-range address. <p>
+ * 
+ * The RVM prints nothing while running a battle. Battle listeners may
+ * be registered to observe it; <tt>ConsoleTracer</tt> prints a trace.
  * 
  * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
  * @version 1.0 (8 April 2016)
  */
 public class RVM {
 	
-	private Cell memory[];				// RVM RAM
+	private Core core;					// RVM RAM
+	private int size;					// number of locations in RAM
+	private boolean wrap;				// do addresses wrap around RAM?
+	private int mask;					// address mask, when wrapping
+	private ProcessGroup players[];		// owning process groups, by player
+	private int owned[];				// number of locations owned, by player
+	private TreeMap<Integer, Integer> extents;	// unowned runs, start to end
+	private boolean loading;			// is a program being loaded?
+	private InstructionExecutor decoded[][];	// decode cache, by page
+	private InstructionTable table;		// the shared dispatch table
+	private Map<Assembler, int[]> images;	// program images, by assembler
 	private List<ProcessGroup> groups;	// process groups
+	private ProcessGroup byPlayer[];	// process groups, by player
+	private int runnableGroups;			// number of runnable process groups
 	private int next;					// next process group to execute
+	private BattleListener listener;	// battle listeners, or null if none
+	private Random random;				// placement and syscall random numbers
+	
+	public static final int FAULT = -1;		// translation of an invalid address
 	
 	private static final int MAX_RAM = 65535;
+	private static final int PAGE_BITS = 12;	// decode cache page size
+	private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
 	
 	/**
 	 * No-arg constructor. Default size is MAX_RAM.
@@ -26,29 +72,106 @@ public class RVM {
 	}
 	
 	/**
+	 * Create an RVM of the specified size. Cores larger than MAX_RAM
+	 * are sparse, so only the pages written take up memory.
+	 * 
 	 * @param size
 	 */
 	public RVM(int size) {
 		
-		// Valid RAM size is between 1 and MAX_RAM.
-		if (size < 1 || size > MAX_RAM) {
-			throw new IndexOutOfBoundsException("Invalid RAM size: " + size);
-		}
+		this(defaultCore(size));
+		
+	}
+	
+	/**
+	 * Create an RVM whose memory is held in the specified core, which
+	 * must be newly created.
+	 * 
+	 * @param core the RVM memory
+	 */
+	public RVM(Core core) {
 		
-		// Create the RVM memory.
-		memory = new Cell[size];
+		this(core, false);
 		
-		// Initialize memory.
-		for (int i = 0; i < size; i++) {
-			memory[i] = new Cell();
+	}
+	
+	/**
+	 * Create an RVM of the specified size, with wrapping addresses if 
+	 * requested.
+	 * 
+	 * @param size
+	 * @param wrap <code>true</code> if addresses wrap around memory
+	 * @throws IllegalArgumentException If addresses wrap and the size
+	 * is not a power of two.
+	 */
+	public RVM(int size, boolean wrap) {
+		
+		this(defaultCore(size), wrap);
+		
+	}
+	
+	/**
+	 * Create an RVM whose memory is held in the specified core, which
+	 * must be newly created, with wrapping addresses if requested.
+	 * 
+	 * @param core the RVM memory
+	 * @param wrap <code>true</code> if addresses wrap around memory
+	 * @throws IllegalArgumentException If addresses wrap and the core
+	 * size is not a power of two.
+	 */
+	public RVM(Core core, boolean wrap) {
+		
+		// Use the supplied RVM memory.
+		this.core = core;
+		size = core.size();
+		
+		// Wrapping addresses are masked, so need a power-of-two size.
+		if (wrap && Integer.bitCount(size) != 1) {
+			throw new IllegalArgumentException("Wrapping RAM size must be a power of two: " + size);
 		}
+		this.wrap = wrap;
+		mask = size - 1;
+		players = new ProcessGroup[10];
+		
+		// Every location starts out unowned.
+		owned = new int[10];
+		owned[0] = size;
+		extents = new TreeMap<Integer, Integer>();
+		extents.put(0, size);
+		
+		// Create the decode cache. Pages are created, and entries 
+		// filled, on first fetch.
+		decoded = new InstructionExecutor[(int)(((long)size + PAGE_MASK) >>> PAGE_BITS)][];
+		table = InstructionTable.getDefault();
+		images = new IdentityHashMap<Assembler, int[]>();
 		
 		// Create an empty process group.
 		groups = new ArrayList<ProcessGroup>();
+		byPlayer = new ProcessGroup[10];
+		runnableGroups = 0;
 		
 		// The next process group to execute.
 		next = 0;
 		
+		random = new Random();
+		
+	}
+	
+	/**
+	 * Create the default RVM memory of the specified size.
+	 * 
+	 * @param size
+	 * @return
+	 */
+	private static Core defaultCore(int size) {
+		
+		// Valid RAM size is at least 1.
+		if (size < 1) {
+			throw new IndexOutOfBoundsException("Invalid RAM size: " + size);
+		}
+		
+		return (size <= MAX_RAM ? new ArrayCore(size) : new PagedCore(size));
+		
 	}
 	
 	/**
@@ -65,123 +188,737 @@ public class RVM {
 	 */
 	public void loadProgram(File file, Integer player) {
 		
+		// Create a process for this Redcode program.
+		// The process will add itself to the group.
+		ProcessGroup pg = getLoadGroup(player);
+		load(new WarriorProcess(file, pg));
+		
+	}
+	
+	/**
+	 * Load the program assembled by the specified assembler into the 
+	 * RVM for the specified player, as <code>loadProgram(File, Integer)
+	 * </code> does. The assembler is shared, not copied, so one assembler
+	 * may load the same program into any number of RVMs, including RVMs 
+	 * running on other threads once its program image has been taken 
+	 * with <code>getImage()</code>, provided it loads nothing more.
+	 * 
+	 * @param asm the assembled Redcode program to load
+	 * @param player the player this program belongs to
+	 */
+	public void loadProgram(Assembler asm, Integer player) {
+		ProcessGroup pg = getLoadGroup(player);
+		load(new WarriorProcess(asm, pg));
+	}
+	
+	/**
+	 * Return the process group for the specified player, creating one
+	 * and adding it to the battle if there is none.
+	 * 
+	 * @param player the player
+	 * @return the process group
+	 */
+	private ProcessGroup getLoadGroup(Integer player) {
+		
 		if (player < 1 || player > 9) {
 			throw new IllegalArgumentException("Illegal player number: " + player + ". Value must be between 1 and 9.");
 		}
 		
-		// Return the process group for this player. With a limited
-		// number of players, this data structure is adequate.
-		ProcessGroup pg = null;
-		for (ProcessGroup group : groups) {
-			if (group.getPlayer() == player) {
-				pg = group;
-				break;
-			}
-		}
+		// Return the process group for this player.
+		ProcessGroup pg = byPlayer[player];
 		
 		// No process group exists yet for this player, 
 		// so create a new one.
 		if (pg == null) {
 			pg = new ProcessGroup(player, this);
-			groups.add(pg);
+			addProcessGroup(pg);
 		}
 		
-		// Create a process for this Redcode program.
-		// The process will add itself to the group.
-		WarriorProcess process = new WarriorProcess(file, pg);
-		
-		// get the instruction set.
-		List<Integer> iset = process.getInstructions();
-		
-		// analyze blocks; update block list. want to locate
-		// contiguous blocks of memory where the program will 
-		// fit without overlapping another program and will
-		// not run off the end of the memory.
-		int blocksize = 0;
-		int start = 0;
-		boolean inBlock = false;
-		List<Integer> blocks = new ArrayList<Integer>();
-		for (int i = 0; i < memory.length; i++ ) {
-			if (memory[i].getProcessGroup() == null) {
-				// no owner
-				if (inBlock) {
-					blocksize++;
-				} else {
-					inBlock = true;
-					start = i;
-					blocksize = 1;
-				}
-			} else {
-				// someone owns the cell
-				if (inBlock) {
-					inBlock = false;
-					if (blocksize >= iset.size()) {
-						// valid block, so save off block to array.
-						for (int j = start; j <= (start + blocksize - iset.size()); j++) {
-							blocks.add(j);
-						}
-					}
-				} else {
-					// not in a block, so do nothing
-				}
-			}
+		return pg;
+		
+	}
+	
+	/**
+	 * Place the program of the specified new process in memory, and 
+	 * start the process at its first instruction.
+	 * 
+	 * @param process the process
+	 */
+	private void load(WarriorProcess process) {
+		
+		ProcessGroup pg = process.getProcessGroup();
+		
+		// get the program image.
+		int image[] = getImage(process.getAssembler());
+		
+		// Find a random starting location where the program will
+		// fit without overlapping another program and will not run
+		// off the end of the memory.
+		int idx = place(getExtents(), image.length, random);
+		if (idx < 0) {
+			throw new OutOfMemoryError("Not enough memory for program.");
 		}
+		process.setPC(idx);
 		
-		if (inBlock) {
-			if (blocksize >= iset.size()) {
-				// valid block, so save off block to array.
-				for (int j = start; j <= (start + blocksize - iset.size()); j++) {
-					blocks.add(j);
-				}
-			}
+		// Load the program into memory. The index of unowned runs is
+		// kept up to date as the program claims its locations, ready
+		// for the next program.
+		loading = true;
+		try {
+			store(idx, image, pg, process.getPID());
+		} finally {
+			loading = false;
 		}
 		
-		// After block checking, do any blocks exist to place the program?
-		if (blocks.size() == 0) {
-			throw new OutOfMemoryError("Not enough memory for program.");
+	}
+	
+	/**
+	 * Pick a random starting location for a program of the specified 
+	 * length. Every location from which the program fits in unowned 
+	 * memory is equally likely. Only the unowned runs are examined, 
+	 * twice: once to count the candidate locations and once to find 
+	 * the one picked.
+	 * 
+	 * @param runs the unowned runs
+	 * @param length the program length
+	 * @param random the source of the pick
+	 * @return the starting location, or -1 if the program does not fit
+	 */
+	private static int place(TreeMap<Integer, Integer> runs, int length, Random random) {
+		
+		// Count the candidate locations in each unowned run.
+		int count = 0;
+		for (Map.Entry<Integer, Integer> run : runs.entrySet()) {
+			int start = run.getKey();
+			int end = run.getValue();
+			if (end - start >= length) {
+				count += end - start - length + 1;
+			}
 		}
 		
-		// Find a random index into blocks array and return the
-		// value which will be the starting PC for program.
-		int idx = (int)(Math.random() * blocks.size());
-		idx = blocks.get(idx);
-		process.setPC(idx);
+		if (count == 0) {
+			return -1;
+		}
 		
-		// Load the program into memory
-		for (Integer instruction : iset) {
-			memory[idx].setProcessGroup(pg);
-			memory[idx].setPID(process.getPID());
-			memory[idx].setInstruction(instruction);
-			idx++;
+		// Pick one, and find the run holding it.
+		int pick = random.nextInt(count);
+		for (Map.Entry<Integer, Integer> run : runs.entrySet()) {
+			int start = run.getKey();
+			int end = run.getValue();
+			if (end - start >= length) {
+				int fits = end - start - length + 1;
+				if (pick < fits) {
+					return start + pick;
+				}
+				pick -= fits;
+			}
 		}
 		
+		return -1;
+		
+	}
+	
+	/**
+	 * Remove the specified unowned location from the unowned runs, 
+	 * splitting the run holding it.
+	 * 
+	 * @param runs the unowned runs
+	 * @param loc the location claimed
+	 */
+	private static void claim(TreeMap<Integer, Integer> runs, int loc) {
+		Map.Entry<Integer, Integer> run = runs.floorEntry(loc);
+		int start = run.getKey();
+		int end = run.getValue();
+		if (start < loc) {
+			runs.put(start, loc);
+		} else {
+			runs.remove(start);
+		}
+		if (loc + 1 < end) {
+			runs.put(loc + 1, end);
+		}
 	}
 	
 	/**
-	 * Return the memory Cell at specified location.
+	 * Return the index of unowned runs, rebuilding it by scanning memory
+	 * if it was dropped because locations were claimed or released 
+	 * outside of loading.
+	 * 
+	 * @return the unowned runs, start location to end location
+	 */
+	private TreeMap<Integer, Integer> getExtents() {
+		if (extents == null) {
+			TreeMap<Integer, Integer> runs = new TreeMap<Integer, Integer>();
+			for (int start = nextUnowned(0); start < size; ) {
+				int end = nextOwned(start);
+				runs.put(start, end);
+				start = nextUnowned(end);
+			}
+			extents = runs;
+		}
+		return extents;
+	}
+	
+	/**
+	 * @param loc the first memory location to examine
+	 * @return the first unowned location at or after loc, or the 
+	 * memory size if none
+	 */
+	private int nextUnowned(int loc) {
+		while (loc < size && core.getOwner(loc) != 0) {
+			loc++;
+		}
+		return loc;
+	}
+	
+	/**
+	 * @param loc the first memory location to examine
+	 * @return the first owned location at or after loc, or the 
+	 * memory size if none
+	 */
+	private int nextOwned(int loc) {
+		while (loc < size && core.getOwner(loc) == 0) {
+			loc++;
+		}
+		return loc;
+	}
+	
+	/**
+	 * Return the memory Cell at specified location. The cell is a view
+	 * onto RVM memory; the execution path uses the primitive accessors
+	 * instead.
 	 * 
 	 * @param loc
 	 * @return
 	 */
 	public Cell getMemory(int loc) {
-		if (loc < 0 || loc > memory.length) {
+		check(loc);
+		return new Cell(this, loc);
+	}
+	
+	/**
+	 * Return the word stored at the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @return the 32-bit word
+	 * @throws IndexOutOfBoundsException If the location is invalid.
+	 */
+	public int getWord(int loc) {
+		check(loc);
+		return core.getWord(loc);
+	}
+	
+	/**
+	 * Return the player owning the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @return the player, or 0 if no one owns the location
+	 * @throws IndexOutOfBoundsException If the location is invalid.
+	 */
+	public int getOwner(int loc) {
+		check(loc);
+		return core.getOwner(loc);
+	}
+	
+	/**
+	 * Return the process group owning the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @return the process group, or <code>null</code> if no one owns
+	 * the location
+	 * @throws IndexOutOfBoundsException If the location is invalid.
+	 */
+	public ProcessGroup getOwnerGroup(int loc) {
+		check(loc);
+		return players[core.getOwner(loc)];
+	}
+	
+	/**
+	 * Return the PID of the process that last wrote the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @return the PID
+	 * @throws IndexOutOfBoundsException If the location is invalid.
+	 */
+	public int getPID(int loc) {
+		check(loc);
+		return core.getPID(loc);
+	}
+	
+	/**
+	 * Set the word at the specified location, invalidating the decode
+	 * cache entry for that location.
+	 * 
+	 * @param loc the memory location
+	 * @param word the 32-bit word
+	 */
+	void setWord(int loc, int word) {
+		check(loc);
+		core.setWord(loc, word);
+		invalidate(loc);
+	}
+	
+	/**
+	 * Set the process group owning the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @param pg the process group, or <code>null</code> for no owner
+	 */
+	void setOwner(int loc, ProcessGroup pg) {
+		check(loc);
+		int owner = register(pg);
+		transfer(loc, owner);
+		core.setOwner(loc, owner);
+	}
+	
+	/**
+	 * Return the player of the specified process group, remembering the
+	 * group as the owner of that player's locations.
+	 * 
+	 * @param pg the process group, or <code>null</code> for no owner
+	 * @return the player, or 0 for no owner
+	 */
+	private int register(ProcessGroup pg) {
+		if (pg == null || pg.getPlayer() == null) {
+			return 0;
+		}
+		int player = pg.getPlayer();
+		players[player] = pg;
+		return player;
+	}
+	
+	/**
+	 * Set the PID of the process that wrote the specified location.
+	 * 
+	 * @param loc the memory location
+	 * @param pid the PID
+	 */
+	void setPID(int loc, int pid) {
+		check(loc);
+		core.setPID(loc, pid);
+	}
+	
+	/**
+	 * Translate the specified address into a memory location. This is
+	 * the exception-free way of checking an address: executors that 
+	 * access memory translate the address first and treat FAULT as a
+	 * memory fault, rather than catching an exception. When addresses
+	 * wrap, every address translates to a location.
+	 * 
+	 * @param address the address
+	 * @return the memory location, or FAULT if the address lies outside
+	 * of memory
+	 */
+	public int translate(int address) {
+		if (wrap) {
+			return address & mask;
+		}
+		return (address >= 0 && address < size ? address : FAULT);
+	}
+	
+	/**
+	 * Read the word at the specified location on behalf of the specified
+	 * process. All reads of RVM memory made by warriors must go through
+	 * this method.
+	 * 
+	 * @param loc the memory location
+	 * @param process the reading process
+	 * @return the 32-bit word
+	 * @throws IndexOutOfBoundsException If the location is invalid.
+	 */
+	public int load(int loc, WarriorProcess process) {
+		int word = getWord(loc);
+		if (listener != null) {
+			listener.read(process, loc, word);
+		}
+		return word;
+	}
+	
+	/**
+	 * Signal a memory fault: the specified process has addressed a 
+	 * location outside of memory, and is killed.
+	 * 
+	 * @param process the faulting process
+	 * @param address the faulting address
+	 */
+	public void fault(WarriorProcess process, int address) {
+		if (listener != null) {
+			listener.faulted(process, address);
+		}
+		process.kill();
+	}
+	
+	/**
+	 * @return <code>true</code> if addresses wrap around memory
+	 */
+	public boolean isWrapping() {
+		return wrap;
+	}
+	
+	/**
+	 * Verify the specified location lies within RVM memory.
+	 * 
+	 * @param loc the memory location
+	 * @throws IndexOutOfBoundsException If the location is invalid.
+	 */
+	private void check(int loc) {
+		if (loc < 0 || loc >= size) {
 			throw new IndexOutOfBoundsException("Invalid memory location: " + loc);
 		}
-		return memory[loc];
 	}
 	
 	/**
+	 * Store a word at the specified location on behalf of the specified
+	 * process group and PID, and invalidate the decode cache entry for
+	 * that location. All writes to RVM memory made while running
+	 * warriors must go through this method, or its bulk form.
+	 * 
+	 * @param loc the memory location
+	 * @param word the 32-bit word to store
+	 * @param pg the process group that now owns the location
+	 * @param pid the PID of the writing process
+	 * @throws IndexOutOfBoundsException If the location is invalid.
+	 */
+	public void store(int loc, int word, ProcessGroup pg, int pid) {
+		check(loc);
+		int owner = register(pg);
+		transfer(loc, owner);
+		core.set(loc, word, owner, pid);
+		invalidate(loc);
+		if (listener != null) {
+			listener.written(loc, word, pg, pid);
+		}
+	}
+	
+	/**
+	 * Store a program image in consecutive locations from the specified 
+	 * address on behalf of the specified process group and PID. The 
+	 * image is copied into memory in bulk. Storing stops at the first
+	 * address that faults.
+	 * 
+	 * @param address the address of the first word
+	 * @param image the words to store
+	 * @param pg the process group that now owns the locations
+	 * @param pid the PID of the writing process
+	 * @return the number of words stored, less than the image length
+	 * if an address faulted
+	 */
+	public int store(int address, int image[], ProcessGroup pg, int pid) {
+		int owner = register(pg);
+		int count = 0;
+		while (count < image.length) {
+			int loc = translate(address + count);
+			if (loc == FAULT) {
+				break;
+			}
+			// Copy as much as fits before the end of memory; wrapping
+			// addresses carry on from the start of memory.
+			int n = Math.min(image.length - count, size - loc);
+			for (int i = loc; i < loc + n; i++) {
+				transfer(i, owner);
+				invalidate(i);
+			}
+			core.set(loc, image, count, n, owner, pid);
+			if (listener != null) {
+				for (int i = 0; i < n; i++) {
+					listener.written(loc + i, image[count + i], pg, pid);
+				}
+			}
+			count += n;
+		}
+		return count;
+	}
+	
+	/**
+	 * Store the program assembled by the specified assembler in 
+	 * consecutive locations from the specified address, as 
+	 * <code>store(int, int[], ProcessGroup, int)</code> does. The RVM
+	 * takes its own copy of the program image the first time it stores 
+	 * or loads the program, and copies that into memory from then on, so
+	 * forking costs no more than the bulk copy.
+	 * 
+	 * @param address the address of the first word
+	 * @param program the assembled program to store
+	 * @param pg the process group that now owns the locations
+	 * @param pid the PID of the writing process
+	 * @return the number of words stored, less than the program length
+	 * if an address faulted
+	 */
+	public int store(int address, Assembler program, ProcessGroup pg, int pid) {
+		return store(address, getImage(program), pg, pid);
+	}
+	
+	/**
+	 * Return this RVM's copy of the program image of the specified 
+	 * assembler, taking it on first request.
+	 * 
+	 * @param program the assembled program
+	 * @return the program image
+	 */
+	private int[] getImage(Assembler program) {
+		int image[] = images.get(program);
+		if (image == null) {
+			image = program.getImage();
+			images.put(program, image);
+		}
+		return image;
+	}
+	
+	/**
+	 * Update the ownership counts for a change of the owner of the
+	 * specified location. Must be called before the core is updated. <p>
+	 * 
+	 * The index of unowned runs is only kept while a program is being
+	 * loaded, when the claims are few and in one place. On the execution
+	 * path, where warriors may claim locations all over memory, keeping
+	 * it would cost a tree update, and allocation, per claim; instead 
+	 * the index is dropped, and the next load rebuilds it.
+	 * 
+	 * @param loc the memory location
+	 * @param owner the new owner, or 0 for no owner
+	 */
+	private void transfer(int loc, int owner) {
+		int old = core.getOwner(loc);
+		if (old != owner) {
+			owned[old]--;
+			owned[owner]++;
+			if (loading && old == 0 && extents != null) {
+				claim(extents, loc);
+			} else if (old == 0 || owner == 0) {
+				extents = null;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of locations owned by the specified player.
+	 * The count is kept as locations change hands, so this takes 
+	 * constant time.
+	 * 
+	 * @param player the player, or 0 for unowned locations
+	 * @return the number of locations owned
+	 */
+	public int getOwned(int player) {
+		return (player < 0 || player >= owned.length ? 0 : owned[player]);
+	}
+	
+	/**
+	 * Discard the decode cache entry for the specified location.
+	 * 
+	 * @param loc the memory location
+	 */
+	private void invalidate(int loc) {
+		InstructionExecutor page[] = decoded[loc >>> PAGE_BITS];
+		if (page != null) {
+			page[loc & PAGE_MASK] = null;
+		}
+	}
+	
+	/**
+	 * Return the executor for the instruction at the specified location,
+	 * decoding it only if the decode cache holds no entry for it. An
+	 * illegal instruction decodes to <tt>hlt</tt>. A location stays
+	 * decoded until it is written. Common idioms decode to cheaper,
+	 * equivalent executors (see <tt>Idioms</tt>).
+	 * 
+	 * @param loc the memory location
+	 * @return the executor
+	 * @throws IndexOutOfBoundsException If the location is invalid.
+	 */
+	public InstructionExecutor getExecutor(int loc) {
+		check(loc);
+		InstructionExecutor page[] = decoded[loc >>> PAGE_BITS];
+		if (page == null) {
+			page = new InstructionExecutor[PAGE_MASK + 1];
+			decoded[loc >>> PAGE_BITS] = page;
+		}
+		InstructionExecutor executor = page[loc & PAGE_MASK];
+		if (executor == null) {
+			int instruction = core.getWord(loc);
+			executor = table.getExecutor(instruction);
+			if (executor == null) {
+				executor = table.getExecutor(13);	// hlt
+			}
+			executor = Idioms.specialize(instruction, executor);
+			page[loc & PAGE_MASK] = executor;
+		}
+		return executor;
+	}
+	
+	/**
+	 * Register a listener for the events of battles run by this RVM.
+	 * 
+	 * @param l the listener
+	 */
+	public void addBattleListener(BattleListener l) {
+		if (l == null) {
+			return;
+		}
+		if (listener == null) {
+			listener = l;
+		} else if (listener instanceof Multicaster) {
+			listener = ((Multicaster)listener).add(l);
+		} else {
+			listener = new Multicaster(new BattleListener[] { listener, l });
+		}
+	}
+	
+	/**
+	 * Unregister a listener added with <code>addBattleListener()</code>.
+	 * 
+	 * @param l the listener
+	 */
+	public void removeBattleListener(BattleListener l) {
+		if (listener == l) {
+			listener = null;
+		} else if (listener instanceof Multicaster) {
+			listener = ((Multicaster)listener).remove(l);
+		}
+	}
+	
+	/**
+	 * Deliver a step event to the battle listeners, if any. Subclasses
+	 * overriding <code>step()</code> call this once the instruction has
+	 * been executed.
+	 * 
+	 * @param process the process
+	 * @param loc the memory location fetched from, or FAULT
+	 * @param instruction the 32-bit word instruction executed
+	 */
+	protected final void fireStepped(WarriorProcess process, int loc, int instruction) {
+		if (listener != null) {
+			listener.stepped(process, loc, instruction);
+		}
+	}
+	
+	/**
+	 * Called by a process group when one of its processes is killed.
+	 * 
+	 * @param process the process
+	 */
+	void processKilled(WarriorProcess process) {
+		if (listener != null) {
+			listener.killed(process);
+		}
+	}
+	
+	/**
+	 * Called by a process group when one of its processes forks.
+	 * 
+	 * @param parent the process executing <tt>frk</tt>
+	 * @param child the new process
+	 */
+	void processForked(WarriorProcess parent, WarriorProcess child) {
+		if (listener != null) {
+			listener.forked(parent, child);
+		}
+	}
+	
+	/**
+	 * Add the specified process group to the battle.
+	 * 
+	 * @param pg the process group
+	 * @throws IllegalArgumentException If the group has no player, 
+	 * the group belongs to another RVM or the player already has a 
+	 * group in the battle.
+	 */
+	public void addProcessGroup(ProcessGroup pg) {
+		
+		if (pg.getPlayer() == null || pg.getRVM() != this) {
+			throw new IllegalArgumentException("Process group cannot join this battle.");
+		}
+		
+		int player = pg.getPlayer();
+		if (byPlayer[player] != null) {
+			throw new IllegalArgumentException("Player " + player + " already has a process group.");
+		}
+		
+		groups.add(pg);
+		byPlayer[player] = pg;
+		if (pg.isRunnable()) {
+			runnableGroups++;
+		}
+		
+	}
+	
+	/**
+	 * Called by a process group in the battle when its first process
+	 * is created, or becomes runnable again.
+	 * 
+	 * @param pg the process group
+	 */
+	void groupStarted(ProcessGroup pg) {
+		if (inBattle(pg)) {
+			runnableGroups++;
+		}
+	}
+	
+	/**
+	 * Called by a process group in the battle when its last runnable
+	 * process is killed.
+	 * 
+	 * @param pg the process group
+	 */
+	void groupStopped(ProcessGroup pg) {
+		if (inBattle(pg)) {
+			runnableGroups--;
+		}
+	}
+	
+	/**
+	 * @param pg the process group
+	 * @return <code>true</code> if the process group is in the battle
+	 */
+	private boolean inBattle(ProcessGroup pg) {
+		Integer player = pg.getPlayer();
+		return player != null && byPlayer[player] == pg;
+	}
+	
+	/**
+	 * Return the process group in the battle for the specified player.
+	 * 
+	 * @param player the player
+	 * @return the process group, or <code>null</code> if none
+	 */
+	public ProcessGroup getProcessGroup(int player) {
+		return (player < 1 || player >= byPlayer.length ? null : byPlayer[player]);
+	}
+	
+	/**
+	 * Returns the process groups in the battle, which may not be 
+	 * modified; use <code>addProcessGroup()</code> to add a group.
+	 * 
 	 * @return
 	 */
 	public List<ProcessGroup> getProcessGroups() {
-		return groups;
+		return Collections.unmodifiableList(groups);
+	}
+	
+	/**
+	 * Returns the source of the random numbers used to place programs
+	 * and by the random number syscall. 
+	 * 
+	 * @return the random number generator
+	 */
+	public Random getRandom() {
+		return random;
+	}
+	
+	/**
+	 * Seed the random numbers used to place programs and by the random
+	 * number syscall, so that a battle may be repeated exactly.
+	 * 
+	 * @param seed the seed
+	 */
+	public void setSeed(long seed) {
+		random.setSeed(seed);
 	}
 	
 	/**
 	 * @return
 	 */
 	public int memsize() {
-		return memory.length;
+		return size;
 	}
 	
 	/**
@@ -197,13 +934,7 @@ public class RVM {
 	 * @return the number of runnable process groups in the RVM.
 	 */
 	public int getNPG() {
-		int count = 0;
-		for (ProcessGroup pg : groups) {
-			if (pg.isRunnable()) {
-				count++;
-			}
-		}
-		return count;
+		return runnableGroups;
 	}
 	
 	/**
@@ -218,12 +949,8 @@ public class RVM {
 	 * @return
 	 */
 	public int getNProcs(int npg) {
-		for (ProcessGroup pg : groups) {
-			if (pg.getPlayer() == npg) {
-				return pg.getNumberOfRunnableProcesses();
-			}
-		}
-		return 0;
+		ProcessGroup pg = getProcessGroup(npg);
+		return (pg == null ? 0 : pg.getNumberOfRunnableProcesses());
 	}
 	
 	/**
@@ -231,17 +958,123 @@ public class RVM {
 	 * @return
 	 */
 	public int score(int npg) {
+		ProcessGroup pg = getProcessGroup(npg);
+		return (pg == null ? 0 : pg.score());
+	}
+	
+	/**
+	 * Fetch, decode and execute the next instruction of the specified
+	 * process.
+	 * 
+	 * @param process the process to step
+	 */
+	protected void step(WarriorProcess process) {
+		
+		int instruction;
+		InstructionExecutor executor;
+		
+		int loc = fetch(process);
+		if (loc < 0) {
+			// The fetch failed, halt the process.
+			instruction = 13;	// hlt
+			executor = table.getExecutor(instruction);
+		} else {
+			// Return the executor for the instruction from
+			// the decode cache.
+			instruction = core.getWord(loc);
+			executor = getExecutor(loc);
+		}
+		
+		// now execute the instruction!
+		executor.exec(instruction, process, this);
+		
+		if (listener != null) {
+			listener.stepped(process, loc, instruction);
+		}
+		
+	}
+	
+	/**
+	 * Locate the next instruction of the specified process. The fetch 
+	 * fails if the PC points outside of memory or at a cell owned by
+	 * another player.
+	 * 
+	 * @param process the process to fetch for
+	 * @return the memory location of the instruction, or -1 if the
+	 * fetch failed and the process should halt.
+	 */
+	protected int fetch(WarriorProcess process) {
+		
+		// get pc for next instruction to execute
+		int pc = process.getPC();
+		
+		int loc = translate(pc);
+		boolean invalid = (loc == FAULT);
+		if (!invalid) {
+			
+			// The PC may have wrapped around memory.
+			if (loc != pc) {
+				process.setPC(loc);
+			}
+			
+			// retrieve the owner of memory location point to by pc
+			int owner = core.getOwner(loc);
+			
+			// Check if cell is owned by another player.
+			// If so, then halt the process.
+			if (owner != 0 && owner != process.getProcessGroup().getPlayer()) {
+				loc = FAULT;
+			}
+			
+		}
+		
+		if (listener != null) {
+			listener.fetched(process, pc, loc);
+			if (invalid) {
+				// An attempt to access invalid memory has
+				// occurred, halt the process.
+				listener.faulted(process, pc);
+			}
+		}
+		
+		return loc;
+		
+	}
+	
+	/**
+	 * Return the player of the runnable process group with the highest 
+	 * score, or 0 if there is no runnable process group or the highest
+	 * score is tied.
+	 * 
+	 * @return the leading player, or 0 if none
+	 */
+	private int leader() {
+		int leader = 0;
+		int best = -1;
 		for (ProcessGroup pg : groups) {
-			if (pg.getPlayer() == npg) {
-				return pg.score();
+			if (pg.isRunnable()) {
+				int score = pg.score();
+				if (score > best) {
+					leader = pg.getPlayer();
+					best = score;
+				} else if (score == best) {
+					leader = 0;
+				}
 			}
 		}
-		return 0;
+		return leader;
 	}
 	
 	/**
 	 * Start the battle. Use a round robin to conduct battle.
-	 * Returns the player who won the battle.
+	 * Returns the player who won the battle: the last player with a 
+	 * runnable process group or, if more than one is left when all the
+	 * cycles have run, the one of those with the highest score. Returns
+	 * 0 if there is no winner, because every process group has stopped 
+	 * or the highest score is tied.
+	 * 
+	 * @param cycles the number of cycles to run
+	 * @return the winning player, or 0 if none
 	 */
 	public int battle(int cycles) {
 		// cycle through each process in each process
@@ -255,45 +1088,35 @@ public class RVM {
 		int cycle = 0;
 		while (cycle < cycles) {
 			
-			// DEBUG:
-			System.out.print("CYCLE " + cycle + "  G" + (next+1) + ":");
-			
 			// Run the ProcessGroup execute method.
 			exec();
 			
 			// Check for end of cycle.
 			if (next == 0) {
 				
+				if (listener != null) {
+					listener.cycleEnded(cycle);
+				}
+				
 				// End of this cycle, check if any process groups
 				// are still running. if only 1, game over (return). 
 				// if 0, then no one wins (return). if >1, continue.
 				int npg = getNPG();
 				if (npg == 0) {
-					// DEBUG:
-					System.out.println("*** ALL GROUPS ARE NO LONGER RUNNABLE ***");
 					return 0;
 				} else if (npg == 1) {
-					// DEBUG: 
-					System.out.println("We have a winner");
-					// TODO:
-					return 0;
+					return leader();
 				}
 				
 				cycle++;
-				System.out.println(toString());
 				
 			}
 			
 		}
 		
-		if (cycles != 1) {
-			// TODO: end of all cycles, see who is winner
-			//for (ProcessGroup pgx : groups) {
-			//	System.out.println(pgx.score());
-			//}
-		}
-		
-		return 0;
+		// End of all cycles, the winner is the runnable process
+		// group with the highest score.
+		return leader();
 		
 	}
 	
@@ -304,9 +1127,6 @@ public class RVM {
 		ProcessGroup pg = groups.get(next);
 		if (pg.isRunnable()) {
 			pg.exec();
-		} else {
-			// DEBUG:
-			System.out.println(" GROUP IS NO LONGER RUNNABLE!");
 		}
 		next = (next == groups.size() - 1 ? 0 : next + 1);
 	}
@@ -317,17 +1137,92 @@ public class RVM {
 	public String toString() {
 		
 		StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < memory.length; i++) {
+		for (int i = 0; i < size; i++) {
 			if ((i + 1) % 50 == 0) {
-				sb.append(memory[i].toString() + "\n");
+				sb.append(core.getOwner(i) + "\n");
 			} else {
-				sb.append(memory[i].toString() + " ");
+				sb.append(core.getOwner(i) + " ");
 			}
 		}
 		
 		return sb.toString();
 	}
 	
+	/**
+	 * Delivers each battle event to several listeners, in the order
+	 * they were registered. The listener array is never modified;
+	 * adding or removing a listener creates a new multicaster.
+	 */
+	private static class Multicaster implements BattleListener {
+		
+		private BattleListener listeners[];
+		
+		Multicaster(BattleListener listeners[]) {
+			this.listeners = listeners;
+		}
+		
+		BattleListener add(BattleListener l) {
+			BattleListener more[] = Arrays.copyOf(listeners, listeners.length + 1);
+			more[listeners.length] = l;
+			return new Multicaster(more);
+		}
+		
+		BattleListener remove(BattleListener l) {
+			List<BattleListener> rest = new ArrayList<BattleListener>(Arrays.asList(listeners));
+			rest.remove(l);
+			return (rest.size() == 1 ? rest.get(0) : new Multicaster(rest.toArray(new BattleListener[rest.size()])));
+		}
+		
+		public void fetched(WarriorProcess process, int pc, int loc) {
+			for (BattleListener l : listeners) {
+				l.fetched(process, pc, loc);
+			}
+		}
+		
+		public void stepped(WarriorProcess process, int loc, int instruction) {
+			for (BattleListener l : listeners) {
+				l.stepped(process, loc, instruction);
+			}
+		}
+		
+		public void killed(WarriorProcess process) {
+			for (BattleListener l : listeners) {
+				l.killed(process);
+			}
+		}
+		
+		public void forked(WarriorProcess parent, WarriorProcess child) {
+			for (BattleListener l : listeners) {
+				l.forked(parent, child);
+			}
+		}
+		
+		public void written(int loc, int word, ProcessGroup pg, int pid) {
+			for (BattleListener l : listeners) {
+				l.written(loc, word, pg, pid);
+			}
+		}
+		
+		public void read(WarriorProcess process, int loc, int word) {
+			for (BattleListener l : listeners) {
+				l.read(process, loc, word);
+			}
+		}
+		
+		public void faulted(WarriorProcess process, int address) {
+			for (BattleListener l : listeners) {
+				l.faulted(process, address);
+			}
+		}
+		
+		public void cycleEnded(int cycle) {
+			for (BattleListener l : listeners) {
+				l.cycleEnded(cycle);
+			}
+		}
+		
+	}
+	
 	/**
 	 * test harness
 	 * 
@@ -338,6 +1233,7 @@ public class RVM {
 		
 		rvm.loadProgram(new File("test/warrior3.war"), 1);
 		rvm.loadProgram(new File("test/pingpong.war"), 2);
+		rvm.addBattleListener(new ConsoleTracer(rvm));
 		//rvm.loadProgram(new File("test/Chunky.war"), 1);
 		//rvm.loadProgram(new File("test/splat.war"), 2);
 		//rvm.loadProgram(new File("test/warrior2.war"), 2);
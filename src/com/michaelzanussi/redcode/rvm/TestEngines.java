@@ -0,0 +1,263 @@
+package com.michaelzanussi.redcode.rvm;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.michaelzanussi.redcode.Assembler;
+
+/**
+ * Differential test driver for the execution engines. The same seeded
+ * battles are run on an <tt>RVM</tt> and a <tt>FastRVM</tt> in lockstep,
+ * and after every cycle the two are compared: memory, the owner and PID
+ * of every location, the score of every player, and the PC, HI, LO,
+ * registers and state of every process. The first difference found is
+ * reported and the driver exits with a status of 1. <p>
+ *
+ * Every pair of the warriors named on the command line battles, with and
+ * without wrapping addresses. If none are named, a set of the warriors in
+ * <tt>test</tt> battles, together with a warrior which runs almost every
+ * instruction on ever-changing values. Run from the project directory.
+ *
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class TestEngines {
+
+	// The warriors in test battled by default.
+	private static final String WARRIORS[] = {
+		"Chunky", "DChunky", "DRandom", "Random", "splat", "pingpong",
+		"warrior1", "warrior3", "add", "mult", "test1", "rformat", "iformat"
+	};
+
+	// A warrior running every instruction but frk and hlt, forever, on
+	// values which change every time around.
+	private static final String SWEEP = 
+		"mfpc $20\n" +
+		"addiu $2, $0, 12345\n" +
+		"addiu $3, $3, 30503\n" +
+		"mult $3, $2\n" +
+		"mflo $4\n" +
+		"mfhi $5\n" +
+		"xor $2, $4, $5\n" +
+		"divu $4, $3\n" +
+		"mflo $6\n" +
+		"mfhi $7\n" +
+		"sra $8, $2, 3\n" +
+		"srl $9, $2, 5\n" +
+		"sll $10, $2, 7\n" +
+		"srav $11, $2, $3\n" +
+		"srlv $12, $2, $3\n" +
+		"sllv $13, $2, $3\n" +
+		"add $14, $2, $3\n" +
+		"sub $15, $2, $3\n" +
+		"subu $16, $3, $2\n" +
+		"addu $17, $4, $5\n" +
+		"and $18, $2, $3\n" +
+		"or $19, $2, $3\n" +
+		"nor $21, $2, $3\n" +
+		"slt $22, $2, $3\n" +
+		"sltu $23, $3, $2\n" +
+		"addi $24, $2, -1234\n" +
+		"slti $25, $2, -5\n" +
+		"sltiu $26, $2, 30000\n" +
+		"andi $27, $2, 32512\n" +
+		"ori $28, $2, 255\n" +
+		"xori $29, $2, 4660\n" +
+		"sw $2, 100($20)\n" +
+		"lw $30, 100($20)\n" +
+		"andi $1, $2, 7\n" +
+		"addiu $1, $1, 1\n" +
+		"syscall\n" +
+		"addu $3, $3, $1\n" +
+		"bltz $2, 2\n" +
+		"addiu $31, $31, 1\n" +
+		"bgez $8, 2\n" +
+		"addiu $31, $31, 2\n" +
+		"blez $22, 2\n" +
+		"addiu $31, $31, 3\n" +
+		"bgtz $14, 2\n" +
+		"addiu $31, $31, 4\n" +
+		"bne $22, $0, 2\n" +
+		"addiu $31, $31, 5\n" +
+		"beq $23, $0, 2\n" +
+		"addiu $31, $31, 6\n" +
+		"addiu $21, $20, 52\n" +
+		"jr $21\n" +
+		"addiu $31, $31, 7\n" +
+		"j -50";
+
+	private static final int SIZE = 8192;	// memory size, a power of two
+	private static final int CYCLES = 1000;	// longest battle
+	private static final int SEEDS = 2;		// battles per pair and mode
+
+	/**
+	 * Run a battle on both engines and compare them after every cycle.
+	 *
+	 * @param a the first warrior
+	 * @param b the second warrior
+	 * @param wrap <code>true</code> if addresses wrap around memory
+	 * @param seed the battle seed
+	 * @return a description of the first difference, or <code>null</code>
+	 */
+	private static String battle(Assembler a, Assembler b, boolean wrap, long seed) {
+
+		RVM slow = new RVM(SIZE, wrap);
+		RVM fast = new FastRVM(SIZE, wrap);
+		for (RVM rvm : new RVM[] { slow, fast }) {
+			rvm.setSeed(seed);
+			rvm.loadProgram(a, 1);
+			rvm.loadProgram(b, 2);
+		}
+
+		String difference = compare(slow, fast);
+		int cycle = 0;
+		while (difference == null && cycle < CYCLES && slow.getNPG() > 1) {
+			slow.exec();
+			fast.exec();
+			if (slow.getNext() == 0) {
+				difference = compare(slow, fast);
+				cycle++;
+			}
+		}
+
+		return (difference == null ? null : "cycle " + cycle + ": " + difference);
+
+	}
+
+	/**
+	 * Compare the state of two RVMs.
+	 *
+	 * @param slow the RVM
+	 * @param fast the FastRVM
+	 * @return a description of the first difference, or <code>null</code>
+	 */
+	private static String compare(RVM slow, RVM fast) {
+
+		if (slow.getNext() != fast.getNext()) {
+			return "next process group " + slow.getNext() + " != " + fast.getNext();
+		}
+
+		for (int loc = 0; loc < SIZE; loc++) {
+			if (slow.getWord(loc) != fast.getWord(loc)) {
+				return "word at " + loc + " " + slow.getWord(loc) + " != " + fast.getWord(loc);
+			}
+			if (slow.getOwner(loc) != fast.getOwner(loc)) {
+				return "owner of " + loc + " " + slow.getOwner(loc) + " != " + fast.getOwner(loc);
+			}
+			if (slow.getPID(loc) != fast.getPID(loc)) {
+				return "PID at " + loc + " " + slow.getPID(loc) + " != " + fast.getPID(loc);
+			}
+		}
+
+		for (int player = 1; player <= slow.getNPlayers(); player++) {
+
+			if (slow.score(player) != fast.score(player)) {
+				return "score of player " + player + " " + slow.score(player) + " != " + fast.score(player);
+			}
+
+			List<WarriorProcess> sp = slow.getProcessGroup(player).getRunnableProcesses();
+			List<WarriorProcess> fp = fast.getProcessGroup(player).getRunnableProcesses();
+			if (sp.size() != fp.size()) {
+				return "processes of player " + player + " " + sp.size() + " != " + fp.size();
+			}
+			for (int i = 0; i < sp.size(); i++) {
+				String difference = compare(sp.get(i), fp.get(i));
+				if (difference != null) {
+					return "process " + player + "." + sp.get(i).getPID() + " " + difference;
+				}
+			}
+
+		}
+
+		return null;
+
+	}
+
+	/**
+	 * Compare the state of two processes.
+	 *
+	 * @param slow the process in the RVM
+	 * @param fast the process in the FastRVM
+	 * @return a description of the first difference, or <code>null</code>
+	 */
+	private static String compare(WarriorProcess slow, WarriorProcess fast) {
+		if (slow.getPID() != fast.getPID()) {
+			return "PID " + slow.getPID() + " != " + fast.getPID();
+		}
+		if (slow.isRunnable() != fast.isRunnable()) {
+			return "runnable " + slow.isRunnable() + " != " + fast.isRunnable();
+		}
+		if (slow.getPC() != fast.getPC()) {
+			return "PC " + slow.getPC() + " != " + fast.getPC();
+		}
+		if (slow.getHI() != fast.getHI()) {
+			return "HI " + slow.getHI() + " != " + fast.getHI();
+		}
+		if (slow.getLO() != fast.getLO()) {
+			return "LO " + slow.getLO() + " != " + fast.getLO();
+		}
+		for (int r = 0; r < 32; r++) {
+			if (slow.getRegister(r) != fast.getRegister(r)) {
+				return "$" + r + " " + slow.getRegister(r) + " != " + fast.getRegister(r);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Battle every pair of warriors on both engines.
+	 *
+	 * @param args the warriors, or none for the default set
+	 * @throws Exception If a warrior cannot be loaded.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		List<File> files = new ArrayList<File>();
+		if (args.length == 0) {
+			for (String name : WARRIORS) {
+				files.add(new File("test", name + ".war"));
+			}
+		} else {
+			for (String arg : args) {
+				files.add(new File(arg));
+			}
+		}
+
+		List<String> names = new ArrayList<String>();
+		List<Assembler> warriors = new ArrayList<Assembler>();
+		for (File file : files) {
+			Assembler asm = new Assembler();
+			asm.load(file);
+			names.add(file.getName());
+			warriors.add(asm);
+		}
+		if (args.length == 0) {
+			Assembler asm = new Assembler();
+			asm.load(SWEEP);
+			names.add("sweep");
+			warriors.add(asm);
+		}
+
+		int battles = 0;
+		for (int i = 0; i < warriors.size(); i++) {
+			for (int j = i + 1; j < warriors.size(); j++) {
+				for (boolean wrap : new boolean[] { false, true }) {
+					for (long seed = 0; seed < SEEDS; seed++) {
+						String difference = battle(warriors.get(i), warriors.get(j), wrap, seed);
+						if (difference != null) {
+							System.out.println(names.get(i) + " vs " + names.get(j)
+									+ (wrap ? ", wrapping" : "") + ", seed " + seed + ": " + difference);
+							System.exit(1);
+						}
+						battles++;
+					}
+				}
+			}
+		}
+
+		System.out.println(battles + " battles, no differences");
+
+	}
+
+}
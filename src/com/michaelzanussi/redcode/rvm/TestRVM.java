@@ -238,26 +238,18 @@ public class TestRVM extends JFrame {
 	}
 	
 	private void printNextInstruction() {
-		int count = 0;
-		int nextPlayer = curPlayer;
-		ProcessGroup pg = rvm.getProcessGroups().get(nextPlayer);
-		int next = pg.getNext();
-		while (count < pg.getProcesses().size()) {
-			WarriorProcess process = pg.getProcesses().get(next);
-			if (process.isRunnable()) {
-				int nextPC = process.getPC();
-				Cell cell = rvm.getMemory(nextPC);
-				Integer nextInst = cell.getInstruction();
-				RedcodeInstruction nextRci = process.getInstruction(nextInst);
-				printTop("Player #" + pg.getPlayer() + " READY -> pc:" + nextPC + " inst:" + nextRci + "\n");
-				break;
-			} else {
-				count++;
-				nextPlayer = (nextPlayer == pg.getProcesses().size() - 1 ? 0 : nextPlayer + 1);
-			}
+		ProcessGroup pg = rvm.getProcessGroups().get(curPlayer);
+		List<WarriorProcess> runnable = pg.getRunnableProcesses();
+		if (runnable.isEmpty()) {
+			printTop("Player #" + pg.getPlayer() + " NO LONGER RUNNABLE\n");
+			return;
 		}
-		
-		
+		WarriorProcess process = runnable.get(pg.getNext());
+		int nextPC = process.getPC();
+		Cell cell = rvm.getMemory(nextPC);
+		Integer nextInst = cell.getInstruction();
+		RedcodeInstruction nextRci = process.getInstruction(nextInst);
+		printTop("Player #" + pg.getPlayer() + " READY -> pc:" + nextPC + " inst:" + nextRci + "\n");
 	}
 	
 	private void printCore() {
@@ -266,11 +258,13 @@ public class TestRVM extends JFrame {
 	}
 	
 	/**
-	 * Dumps the register contents to the bottom pane.
+	 * Dumps the register contents of the current player's process last
+	 * executed (or its first process, if none has been) to the bottom pane.
 	 */
 	private void registerDump() {
 		ProcessGroup pg = rvm.getProcessGroups().get(curPlayer);
-		WarriorProcess wp = pg.getProcesses().get(0);
+		WarriorProcess wp = pg.getProcesses().get(pg.getLastProcNo());
+		printTop("pid: " + wp.getPID() + (wp.isRunnable() ? "" : " (killed)") + "\t");
 		printTop("hi: " + wp.getHI() + "\t");
 		printTop("lo: " + wp.getLO() + "\t");
 		printTop("pc: " + wp.getPC() + "\n");
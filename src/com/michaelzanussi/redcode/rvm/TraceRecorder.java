@@ -0,0 +1,326 @@
+package com.michaelzanussi.redcode.rvm;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A battle listener recording a compact binary trace of a battle to a
+ * file, from which <tt>TraceReplayer</tt> rebuilds the memory and the
+ * process registers as of the end of any cycle. <p>
+ * 
+ * The trace starts with a header and a snapshot of the RVM: every 
+ * memory location not holding an unowned <tt>hlt</tt>, and the
+ * registers of every runnable process, ending as though cycle -1 had
+ * just ended. It then holds one record per
+ * event. Numbers are written as variable-length integers (7 bits per 
+ * byte, low bits first), signed ones zigzag-encoded so that small 
+ * negative numbers stay short. Rather than the registers after each 
+ * step, a step record holds only the registers the step changed, as
+ * differences from a shadow copy of the process's registers kept by 
+ * the recorder (and rebuilt the same way by the replayer); the PC is
+ * held as a difference from the previous PC. A step record also holds 
+ * the location the step fetched from, as a difference from the previous
+ * PC, against which the replayer checks its replay. Write records hold 
+ * their location as a difference from the previous write. <p>
+ * 
+ * The file is appended to through a memory-mapped buffer, remapped a
+ * chunk at a time as it fills, and truncated to the length of the 
+ * trace when the recorder is closed.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class TraceRecorder extends BattleAdapter implements Closeable {
+
+	static final int MAGIC = 0x52564d54;	// "RVMT"
+	static final int VERSION = 2;
+	
+	// Header flags.
+	static final byte WRAP = 1;		// addresses wrap around memory
+	
+	// Record tags.
+	static final byte STEP = 1;		// process stepped
+	static final byte STATE = 2;	// process created, with its registers
+	static final byte WRITE = 3;	// memory written
+	static final byte KILL = 4;		// process killed
+	static final byte CYCLE = 5;	// cycle ended
+	static final byte END = 6;		// end of trace
+	
+	// Register state indices: $0-$31, then the PC, HI and LO.
+	static final int PC = 32;
+	static final int HI = 33;
+	static final int LO = 34;
+	static final int STATE_SIZE = 35;
+	
+	private static final int CHUNK = 1 << 20;		// mapping size
+	static final int MAX_RECORD = 256;				// longest record
+	
+	private RVM rvm;						// the RVM recorded
+	private RandomAccessFile file;			// the trace file
+	private FileChannel channel;
+	private MappedByteBuffer buffer;		// the mapped chunk being filled
+	private long base;						// file offset of the chunk
+	private int shadows[][][];				// registers, by player and PID
+	private int lastWrite;					// location of the last write
+	private List<WarriorProcess> forked;	// processes forked this step
+	
+	/**
+	 * Start recording a trace of the specified RVM to the specified 
+	 * file, which is created or overwritten. The recorder registers 
+	 * itself with the RVM as a battle listener.
+	 * 
+	 * @param rvm the RVM to record
+	 * @param file the trace file
+	 * @return the recorder
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static TraceRecorder record(RVM rvm, File file) throws IOException {
+		TraceRecorder recorder = new TraceRecorder(rvm, file);
+		rvm.addBattleListener(recorder);
+		return recorder;
+	}
+	
+	/**
+	 * @param rvm the RVM to record
+	 * @param file the trace file
+	 * @throws IOException If the file cannot be written.
+	 */
+	private TraceRecorder(RVM rvm, File file) throws IOException {
+		
+		this.rvm = rvm;
+		this.file = new RandomAccessFile(file, "rw");
+		this.file.setLength(0);
+		channel = this.file.getChannel();
+		base = 0;
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, base, CHUNK);
+		shadows = new int[10][][];
+		lastWrite = 0;
+		forked = new ArrayList<WarriorProcess>();
+		
+		// Write the header.
+		buffer.putInt(MAGIC);
+		buffer.put((byte)VERSION);
+		buffer.putInt(rvm.memsize());
+		buffer.put(rvm.isWrapping() ? WRAP : 0);
+		
+		// Write the memory snapshot.
+		for (int loc = 0; loc < rvm.memsize(); loc++) {
+			int word = rvm.getWord(loc);
+			int owner = rvm.getOwner(loc);
+			int pid = rvm.getPID(loc);
+			if (word != 13 || owner != 0 || pid != 0) {
+				writeRecord(loc, word, owner, pid);
+			}
+		}
+		
+		// Write the process snapshot.
+		for (ProcessGroup pg : rvm.getProcessGroups()) {
+			for (WarriorProcess process : pg.getRunnableProcesses()) {
+				stateRecord(process);
+			}
+		}
+		
+		// The snapshot is the state at the end of cycle -1.
+		cycleEnded(-1);
+		
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#stepped(com.michaelzanussi.redcode.rvm.WarriorProcess, int, int)
+	 */
+	public void stepped(WarriorProcess process, int loc, int instruction) {
+		
+		int shadow[] = shadow(process);
+		
+		ensure();
+		buffer.put(STEP);
+		buffer.put((byte)(int)process.getProcessGroup().getPlayer());
+		putVarint(process.getPID());
+		putSigned(loc - shadow[PC]);
+		buffer.putInt(instruction);
+		putState(process, shadow);
+		
+		// Processes forked by the step are recorded now their
+		// registers are set.
+		if (!forked.isEmpty()) {
+			for (WarriorProcess child : forked) {
+				stateRecord(child);
+			}
+			forked.clear();
+		}
+		
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#forked(com.michaelzanussi.redcode.rvm.WarriorProcess, com.michaelzanussi.redcode.rvm.WarriorProcess)
+	 */
+	public void forked(WarriorProcess parent, WarriorProcess child) {
+		forked.add(child);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#killed(com.michaelzanussi.redcode.rvm.WarriorProcess)
+	 */
+	public void killed(WarriorProcess process) {
+		ensure();
+		buffer.put(KILL);
+		buffer.put((byte)(int)process.getProcessGroup().getPlayer());
+		putVarint(process.getPID());
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#written(int, int, com.michaelzanussi.redcode.rvm.ProcessGroup, int)
+	 */
+	public void written(int loc, int word, ProcessGroup pg, int pid) {
+		writeRecord(loc, word, (pg == null || pg.getPlayer() == null ? 0 : pg.getPlayer()), pid);
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.michaelzanussi.redcode.rvm.BattleAdapter#cycleEnded(int)
+	 */
+	public void cycleEnded(int cycle) {
+		ensure();
+		buffer.put(CYCLE);
+		putSigned(cycle);
+	}
+	
+	/**
+	 * Stop recording, and complete and close the trace file.
+	 * 
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void close() throws IOException {
+		if (file == null) {
+			return;
+		}
+		rvm.removeBattleListener(this);
+		ensure();
+		buffer.put(END);
+		long length = base + buffer.position();
+		buffer.force();
+		buffer = null;
+		channel.truncate(length);
+		file.close();
+		file = null;
+	}
+	
+	/**
+	 * Write a record of a memory write.
+	 */
+	private void writeRecord(int loc, int word, int owner, int pid) {
+		ensure();
+		buffer.put(WRITE);
+		putSigned(loc - lastWrite);
+		buffer.putInt(word);
+		buffer.put((byte)owner);
+		putVarint(pid);
+		lastWrite = loc;
+	}
+	
+	/**
+	 * Write a record of a new process and its registers.
+	 */
+	private void stateRecord(WarriorProcess process) {
+		ensure();
+		buffer.put(STATE);
+		buffer.put((byte)(int)process.getProcessGroup().getPlayer());
+		putVarint(process.getPID());
+		putState(process, shadow(process));
+	}
+	
+	/**
+	 * Write the registers of the process that differ from its shadow
+	 * registers: a mask of those that differ, then the difference of
+	 * each. The shadow registers are brought up to date.
+	 */
+	private void putState(WarriorProcess process, int shadow[]) {
+		
+		int registers[] = process.getRegisters();
+		long mask = 0;
+		for (int i = 0; i < 32; i++) {
+			if (registers[i] != shadow[i]) {
+				mask |= 1L << i;
+			}
+		}
+		if (process.getPC() != shadow[PC]) {
+			mask |= 1L << PC;
+		}
+		if (process.getHI() != shadow[HI]) {
+			mask |= 1L << HI;
+		}
+		if (process.getLO() != shadow[LO]) {
+			mask |= 1L << LO;
+		}
+		
+		putVarint(mask);
+		for (int i = 0; mask != 0; i++, mask >>>= 1) {
+			if ((mask & 1) != 0) {
+				int value = (i < 32 ? registers[i] : i == PC ? process.getPC() : i == HI ? process.getHI() : process.getLO());
+				putSigned(value - shadow[i]);
+				shadow[i] = value;
+			}
+		}
+		
+	}
+	
+	/**
+	 * Return the shadow registers of the process, creating them if
+	 * the process has not been seen before.
+	 */
+	private int[] shadow(WarriorProcess process) {
+		int player = process.getProcessGroup().getPlayer();
+		int pid = process.getPID();
+		int byPID[][] = shadows[player];
+		if (byPID == null || pid >= byPID.length) {
+			int grown[][] = new int[Math.max(16, pid * 2)][];
+			if (byPID != null) {
+				System.arraycopy(byPID, 0, grown, 0, byPID.length);
+			}
+			shadows[player] = byPID = grown;
+		}
+		if (byPID[pid] == null) {
+			byPID[pid] = new int[STATE_SIZE];
+		}
+		return byPID[pid];
+	}
+	
+	/**
+	 * Make room in the mapped buffer for the longest record, mapping
+	 * the next chunk of the file if need be.
+	 */
+	private void ensure() {
+		if (buffer.remaining() < MAX_RECORD) {
+			try {
+				base += buffer.position();
+				buffer = channel.map(FileChannel.MapMode.READ_WRITE, base, CHUNK);
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot extend trace: " + e.getMessage(), e);
+			}
+		}
+	}
+	
+	/**
+	 * Write an unsigned variable-length integer.
+	 */
+	private void putVarint(long value) {
+		while ((value & ~0x7fL) != 0) {
+			buffer.put((byte)((value & 0x7f) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte)value);
+	}
+	
+	/**
+	 * Write a signed variable-length integer, zigzag-encoded.
+	 */
+	private void putSigned(int value) {
+		putVarint(((value << 1) ^ (value >> 31)) & 0xffffffffL);
+	}
+	
+}
@@ -0,0 +1,415 @@
+package com.michaelzanussi.redcode.rvm;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Replays a trace written by <tt>TraceRecorder</tt>, rebuilding the 
+ * memory and the registers of every process as they were at the end of 
+ * a chosen cycle. <p>
+ * 
+ * The trace is mapped into memory a chunk at a time, as it was written,
+ * so traces of any length can be replayed. It is replayed forward from
+ * its snapshot; seeking to an earlier cycle than the current one replays 
+ * again from the start. Memory is rebuilt in a <tt>PagedCore</tt>, so 
+ * only the regions a battle touched take up space. Each step is checked
+ * against the replay: the process must have fetched from the location 
+ * its replayed PC gives, or failed to fetch if that location was not 
+ * its own.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class TraceReplayer implements Closeable {
+
+	private static final int CHUNK = 1 << 20;		// mapping size
+
+	private RandomAccessFile file;	// the trace file
+	private FileChannel channel;
+	private long length;			// length of the trace file
+	private ByteBuffer trace;		// the mapped chunk being read
+	private long base;				// file offset of the chunk
+	private long start;				// file offset of the first record
+	private int size;				// memory size
+	private boolean wrap;			// do addresses wrap around memory?
+	
+	private Core core;				// the rebuilt memory
+	private int states[][][];		// registers, by player and PID
+	private boolean dead[][];		// killed processes, by player and PID
+	private int lastWrite;			// location of the last write
+	private int cycle;				// the last cycle replayed
+	private boolean ended;			// end of trace reached?
+	
+	/**
+	 * Open a trace for replay. The replayer holds the file open until 
+	 * it is closed.
+	 * 
+	 * @param file the trace file
+	 * @throws IOException If the file cannot be read, or is not a trace.
+	 */
+	public TraceReplayer(File file) throws IOException {
+		
+		this.file = new RandomAccessFile(file, "r");
+		try {
+			channel = this.file.getChannel();
+			length = channel.size();
+			map(0);
+			
+			if (trace.remaining() < 10 || trace.getInt() != TraceRecorder.MAGIC) {
+				throw new IOException("Not an RVM trace: " + file);
+			}
+			int version = trace.get();
+			if (version != TraceRecorder.VERSION) {
+				throw new IOException("Unsupported trace version " + version + ": " + file);
+			}
+			size = trace.getInt();
+			wrap = (trace.get() & TraceRecorder.WRAP) != 0;
+			start = trace.position();
+		} catch (IOException e) {
+			this.file.close();
+			throw e;
+		}
+		
+		rewind();
+		
+	}
+	
+	/**
+	 * Close the trace file. The replayed state may still be examined,
+	 * but the replayer can no longer seek.
+	 * 
+	 * @throws IOException If the file cannot be closed.
+	 */
+	public void close() throws IOException {
+		if (file != null) {
+			file.close();
+			file = null;
+			channel = null;
+		}
+	}
+	
+	/**
+	 * Replay the trace to the end of the specified cycle, counting from
+	 * 0; a cycle of -1 is the state before the battle began. If the 
+	 * trace ends first, the replay stops at the end of the trace.
+	 * 
+	 * @param cycle the cycle to replay to
+	 * @return <code>true</code> if the cycle was reached
+	 */
+	public boolean seek(int cycle) {
+		
+		if (channel == null) {
+			throw new IllegalStateException("Trace closed");
+		}
+		if (cycle < this.cycle) {
+			rewind();
+		}
+		while (this.cycle < cycle && !ended) {
+			replay();
+		}
+		return this.cycle == cycle;
+		
+	}
+	
+	/**
+	 * Returns the last cycle replayed, or -1 if none.
+	 * 
+	 * @return the last cycle replayed
+	 */
+	public int getCycle() {
+		return cycle;
+	}
+	
+	/**
+	 * Returns the rebuilt memory.
+	 * 
+	 * @return the rebuilt memory
+	 */
+	public Core getCore() {
+		return core;
+	}
+	
+	/**
+	 * Returns the memory size recorded in the trace.
+	 * 
+	 * @return the memory size
+	 */
+	public int memsize() {
+		return size;
+	}
+	
+	/**
+	 * Returns the highest PID seen so far for the specified player, or 0
+	 * if the player has no processes.
+	 * 
+	 * @param player the player
+	 * @return the highest PID seen
+	 */
+	public int getLastPID(int player) {
+		int byPID[][] = states[player];
+		if (byPID == null) {
+			return 0;
+		}
+		for (int pid = byPID.length - 1; pid > 0; pid--) {
+			if (byPID[pid] != null) {
+				return pid;
+			}
+		}
+		return 0;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the specified process has been seen
+	 * and has not been killed.
+	 * 
+	 * @param player the player
+	 * @param pid the PID
+	 * @return <code>true</code> if the process is alive
+	 */
+	public boolean isAlive(int player, int pid) {
+		int byPID[][] = states[player];
+		return byPID != null && pid > 0 && pid < byPID.length && byPID[pid] != null && !dead[player][pid];
+	}
+	
+	/**
+	 * Returns the value of a register of the specified process.
+	 * 
+	 * @param player the player
+	 * @param pid the PID
+	 * @param register the register, 0 to 31
+	 * @return the register value
+	 */
+	public int getRegister(int player, int pid, int register) {
+		return state(player, pid)[register];
+	}
+	
+	/**
+	 * Returns the PC of the specified process.
+	 * 
+	 * @param player the player
+	 * @param pid the PID
+	 * @return the PC
+	 */
+	public int getPC(int player, int pid) {
+		return state(player, pid)[TraceRecorder.PC];
+	}
+	
+	/**
+	 * Returns the HI register of the specified process.
+	 * 
+	 * @param player the player
+	 * @param pid the PID
+	 * @return the HI register
+	 */
+	public int getHI(int player, int pid) {
+		return state(player, pid)[TraceRecorder.HI];
+	}
+	
+	/**
+	 * Returns the LO register of the specified process.
+	 * 
+	 * @param player the player
+	 * @param pid the PID
+	 * @return the LO register
+	 */
+	public int getLO(int player, int pid) {
+		return state(player, pid)[TraceRecorder.LO];
+	}
+	
+	/**
+	 * Start again from the beginning of the trace.
+	 */
+	private void rewind() {
+		try {
+			map(start);
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot read trace: " + e.getMessage(), e);
+		}
+		core = new PagedCore(size);
+		states = new int[10][][];
+		dead = new boolean[10][];
+		lastWrite = 0;
+		cycle = -1;
+		ended = false;
+		
+		// Replay the snapshot, which ends with cycle -1.
+		replay();
+	}
+	
+	/**
+	 * Replay records up to and including the end of the next cycle.
+	 */
+	private void replay() {
+		
+		while (true) {
+			ensure();
+			byte tag = trace.get();
+			switch (tag) {
+			case TraceRecorder.STEP: {
+				int player = trace.get();
+				int pid = (int)getVarint();
+				int s[] = lookup(player, pid);
+				check(player, pid, s[TraceRecorder.PC], s[TraceRecorder.PC] + getSigned());
+				trace.getInt();		// the instruction
+				getState(s);
+				break;
+			}
+			case TraceRecorder.STATE:
+				getState(lookup(trace.get(), getVarint()));
+				break;
+			case TraceRecorder.WRITE: {
+				int loc = lastWrite + getSigned();
+				int word = trace.getInt();
+				int owner = trace.get();
+				int pid = (int)getVarint();
+				core.set(loc, word, owner, pid);
+				lastWrite = loc;
+				break;
+			}
+			case TraceRecorder.KILL: {
+				int player = trace.get();
+				int pid = (int)getVarint();
+				lookup(player, pid);
+				dead[player][pid] = true;
+				break;
+			}
+			case TraceRecorder.CYCLE:
+				cycle = getSigned();
+				return;
+			case TraceRecorder.END:
+				ended = true;
+				trace.position(trace.position() - 1);
+				return;
+			default:
+				throw new IllegalStateException("Corrupt trace: tag " + tag + " at " + (base + trace.position() - 1));
+			}
+		}
+		
+	}
+	
+	/**
+	 * Check that a step fetched from where the replay says it should 
+	 * have: the location the PC translates to if that location is 
+	 * unowned or the player's own, and no location otherwise. A step
+	 * changes the owner of no location to another player, so the owners
+	 * as replayed after the step will do.
+	 * 
+	 * @param player the player stepped
+	 * @param pid the PID stepped
+	 * @param pc the replayed PC before the step
+	 * @param loc the location recorded for the step, or -1
+	 */
+	private void check(int player, int pid, int pc, int loc) {
+		int expected;
+		if (wrap) {
+			expected = pc & (size - 1);
+		} else {
+			expected = (pc >= 0 && pc < size ? pc : RVM.FAULT);
+		}
+		if (expected != RVM.FAULT) {
+			int owner = core.getOwner(expected);
+			if (owner != 0 && owner != player) {
+				expected = RVM.FAULT;
+			}
+		}
+		if (loc != expected) {
+			throw new IllegalStateException("Replay diverged: process " + player + "." + pid + " stepped at " + loc 
+					+ " but its PC " + pc + " gives " + expected + ", in cycle " + (cycle + 1));
+		}
+	}
+	
+	/**
+	 * Map the chunk of the trace starting at the specified file offset.
+	 */
+	private void map(long offset) throws IOException {
+		base = offset;
+		trace = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(CHUNK, length - base));
+	}
+	
+	/**
+	 * Make sure the mapped chunk holds the longest record, mapping the 
+	 * next chunk of the file if need be.
+	 */
+	private void ensure() {
+		if (trace.remaining() < TraceRecorder.MAX_RECORD && base + trace.limit() < length) {
+			try {
+				map(base + trace.position());
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot read trace: " + e.getMessage(), e);
+			}
+		}
+	}
+	
+	/**
+	 * Apply the register differences of a state to the registers.
+	 */
+	private void getState(int s[]) {
+		long mask = getVarint();
+		for (int i = 0; mask != 0; i++, mask >>>= 1) {
+			if ((mask & 1) != 0) {
+				s[i] += getSigned();
+			}
+		}
+	}
+	
+	/**
+	 * Returns the registers of the process, creating them if the 
+	 * process has not been seen before.
+	 */
+	private int[] lookup(int player, long id) {
+		int pid = (int)id;
+		int byPID[][] = states[player];
+		if (byPID == null || pid >= byPID.length) {
+			int grown[][] = new int[Math.max(16, pid * 2)][];
+			boolean killed[] = new boolean[grown.length];
+			if (byPID != null) {
+				System.arraycopy(byPID, 0, grown, 0, byPID.length);
+				System.arraycopy(dead[player], 0, killed, 0, byPID.length);
+			}
+			states[player] = byPID = grown;
+			dead[player] = killed;
+		}
+		if (byPID[pid] == null) {
+			byPID[pid] = new int[TraceRecorder.STATE_SIZE];
+		}
+		return byPID[pid];
+	}
+	
+	/**
+	 * Returns the registers of a process that has been seen.
+	 */
+	private int[] state(int player, int pid) {
+		int byPID[][] = states[player];
+		if (byPID == null || pid < 0 || pid >= byPID.length || byPID[pid] == null) {
+			throw new IllegalArgumentException("No process " + pid + " for player " + player);
+		}
+		return byPID[pid];
+	}
+	
+	/**
+	 * Read an unsigned variable-length integer.
+	 */
+	private long getVarint() {
+		long value = 0;
+		for (int shift = 0; ; shift += 7) {
+			byte b = trace.get();
+			value |= (long)(b & 0x7f) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+	}
+	
+	/**
+	 * Read a signed, zigzag-encoded variable-length integer.
+	 */
+	private int getSigned() {
+		int value = (int)getVarint();
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+}
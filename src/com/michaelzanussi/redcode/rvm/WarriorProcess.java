@@ -2,10 +2,12 @@ package com.michaelzanussi.redcode.rvm;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.PrintStream;
 import java.util.List;
 
 import com.michaelzanussi.redcode.Assembler;
 import com.michaelzanussi.redcode.BadInstructionException;
+import com.michaelzanussi.redcode.InstructionExecutor;
 import com.michaelzanussi.redcode.ParsingException;
 import com.michaelzanussi.redcode.RedcodeInstruction;
 
@@ -28,6 +30,7 @@ public class WarriorProcess {
 	private boolean alive;			// is the process still alive?
 	private Assembler assembler;	// the Redcode assembler
 	private int pid;				// process id
+	private int slot;				// run queue slot in the process group
 	
 	/**
 	 * FRK uses this constructor.
@@ -116,6 +119,20 @@ public class WarriorProcess {
 		return pid;
 	}
 	
+	/**
+	 * @return the run queue slot
+	 */
+	int getSlot() {
+		return slot;
+	}
+	
+	/**
+	 * @param slot the run queue slot
+	 */
+	void setSlot(int slot) {
+		this.slot = slot;
+	}
+	
 	/**
 	 * @return
 	 */
@@ -131,10 +148,13 @@ public class WarriorProcess {
 	}
 	
 	/**
-	 * 
+	 * Kill the process. Killing a process already dead has no effect.
 	 */
 	public void kill() {
-		alive = false;
+		if (alive) {
+			alive = false;
+			pg.processKilled(this);
+		}
 	}
 	
 	/**
@@ -152,6 +172,14 @@ public class WarriorProcess {
 		return rci;
 	}
 	
+	/**
+	 * @param instruction
+	 * @return the shared executor, or <code>null</code> for an illegal instruction
+	 */
+	public InstructionExecutor getExecutor(int instruction) {
+		return assembler.getExecutor(instruction);
+	}
+	
 	/**
 	 * @return
 	 */
@@ -176,7 +204,7 @@ public class WarriorProcess {
 	 * @param index
 	 * @param value
 	 */
-	public void setRegister(int index, Integer value) {
+	public void setRegister(int index, int value) {
 		// Check index bounds.
 		if (index < 0 || index > 31) {
 			throw new ArrayIndexOutOfBoundsException("Invalid register " + index);
@@ -188,6 +216,17 @@ public class WarriorProcess {
 		registers[0] = 0;
 	}
 	
+	/**
+	 * Returns the register file itself, for engines that operate on
+	 * registers directly. Register $0 must be reset to 0 after every
+	 * write.
+	 * 
+	 * @return the registers
+	 */
+	int[] getRegisters() {
+		return registers;
+	}
+	
 	/**
 	 * @return
 	 */
@@ -241,40 +280,47 @@ public class WarriorProcess {
 	 * 
 	 */
 	public void dump() {
-		System.out.print("PC    " + "HI  " + "LO  " + "00 " + "01 " + "02 " + "03 " + "04 " + "05 " + "06 " + "07 " + "08 " + "09 ");
+		dump(System.out);
+	}
+	
+	/**
+	 * @param out where the registers are printed
+	 */
+	public void dump(PrintStream out) {
+		out.print("PC    " + "HI  " + "LO  " + "00 " + "01 " + "02 " + "03 " + "04 " + "05 " + "06 " + "07 " + "08 " + "09 ");
 		for (int i = 10; i < registers.length; i++) {
-			System.out.print(i + " ");
+			out.print(i + " ");
 		}
-		System.out.print("RBL?");
+		out.print("RBL?");
 		
-		System.out.println();
+		out.println();
 		String str = new Integer(pc).toString();
 		while (str.length() < 6) {
 			str += " ";
 		}
-		System.out.print(str);
+		out.print(str);
 
 		str = new Integer(hi).toString();
 		while (str.length() < 4) {
 			str += " ";
 		}
-		System.out.print(str);
+		out.print(str);
 
 		str = new Integer(lo).toString();
 		while (str.length() < 4) {
 			str += " ";
 		}
-		System.out.print(str);
+		out.print(str);
 
 		for (int i = 0; i < registers.length; i++) {
 			str = ((Integer) registers[i]).toString();
 			while (str.length() < 3) {
 				str += " ";
 			}
-			System.out.print(str);
+			out.print(str);
 		}
-		System.out.print(isRunnable());
-		System.out.println();
+		out.print(isRunnable());
+		out.println();
 
 	}
 	
@@ -0,0 +1,181 @@
+package com.michaelzanussi.redcode.tournament;
+
+import java.io.PrintStream;
+
+/**
+ * The results of a tournament: for each pair of warriors, the battles
+ * both fought in, how many each won and how many nobody won, and the
+ * score each made. A warrior's own totals are kept on the diagonal.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class Standings {
+
+	private String names[];		// the warriors' names
+	private int battles[][];	// battles fought, by warrior and opponent
+	private int wins[][];		// battles won, by warrior and opponent
+	private int ties[][];		// battles nobody won, by warrior and opponent
+	private long scores[][];	// score made, by warrior and opponent
+	
+	/**
+	 * @param names the warriors' names
+	 */
+	Standings(String names[]) {
+		int n = names.length;
+		this.names = names;
+		battles = new int[n][n];
+		wins = new int[n][n];
+		ties = new int[n][n];
+		scores = new long[n][n];
+	}
+	
+	/**
+	 * Add the result of a battle.
+	 * 
+	 * @param warriors the warriors fighting
+	 * @param winner the winning warrior, or -1 if none
+	 * @param score the score made by each warrior fighting
+	 */
+	void add(int warriors[], int winner, int score[]) {
+		for (int i = 0; i < warriors.length; i++) {
+			int w = warriors[i];
+			for (int o : warriors) {
+				battles[w][o]++;
+				scores[w][o] += score[i];
+				if (winner == w) {
+					wins[w][o]++;
+				} else if (winner < 0) {
+					ties[w][o]++;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return the number of warriors
+	 */
+	public int size() {
+		return names.length;
+	}
+	
+	/**
+	 * @param warrior the warrior
+	 * @return the warrior's name
+	 */
+	public String getName(int warrior) {
+		return names[warrior];
+	}
+	
+	/**
+	 * @param warrior the warrior
+	 * @return the number of battles the warrior fought
+	 */
+	public int getBattles(int warrior) {
+		return battles[warrior][warrior];
+	}
+	
+	/**
+	 * @param warrior the warrior
+	 * @return the number of battles the warrior won
+	 */
+	public int getWins(int warrior) {
+		return wins[warrior][warrior];
+	}
+	
+	/**
+	 * @param warrior the warrior
+	 * @return the number of battles the warrior fought that nobody won
+	 */
+	public int getTies(int warrior) {
+		return ties[warrior][warrior];
+	}
+	
+	/**
+	 * @param warrior the warrior
+	 * @return the number of battles the warrior fought that another won
+	 */
+	public int getLosses(int warrior) {
+		return getBattles(warrior) - getWins(warrior) - getTies(warrior);
+	}
+	
+	/**
+	 * @param warrior the warrior
+	 * @return the warrior's total score
+	 */
+	public long getScore(int warrior) {
+		return scores[warrior][warrior];
+	}
+	
+	/**
+	 * @param warrior the warrior
+	 * @param opponent the opponent
+	 * @return the number of battles the two fought together
+	 */
+	public int getBattles(int warrior, int opponent) {
+		return battles[warrior][opponent];
+	}
+	
+	/**
+	 * @param warrior the warrior
+	 * @param opponent the opponent
+	 * @return the number of battles fought with the opponent that the
+	 * warrior won
+	 */
+	public int getWins(int warrior, int opponent) {
+		return wins[warrior][opponent];
+	}
+	
+	/**
+	 * @param warrior the warrior
+	 * @param opponent the opponent
+	 * @return the number of battles fought with the opponent that 
+	 * nobody won
+	 */
+	public int getTies(int warrior, int opponent) {
+		return ties[warrior][opponent];
+	}
+	
+	/**
+	 * @param warrior the warrior
+	 * @param opponent the opponent
+	 * @return the warrior's score in the battles fought with the 
+	 * opponent
+	 */
+	public long getScore(int warrior, int opponent) {
+		return scores[warrior][opponent];
+	}
+	
+	/**
+	 * Print the standings: each warrior's totals, then the matrix of 
+	 * wins, each row giving the battles the warrior won against each
+	 * opponent.
+	 * 
+	 * @param out the stream to print to
+	 */
+	public void print(PrintStream out) {
+		
+		int n = names.length;
+		
+		out.println(String.format("%-3s %-20s %8s %8s %8s %8s %12s", "#", "warrior", "battles", "wins", "losses", "ties", "score"));
+		for (int w = 0; w < n; w++) {
+			out.println(String.format("%-3d %-20s %8d %8d %8d %8d %12d", w + 1, names[w], getBattles(w), getWins(w), getLosses(w), getTies(w), getScore(w)));
+		}
+		
+		out.println();
+		out.print(String.format("%-24s", "wins against"));
+		for (int o = 0; o < n; o++) {
+			out.print(String.format(" %6d", o + 1));
+		}
+		out.println();
+		for (int w = 0; w < n; w++) {
+			out.print(String.format("%-3d %-20s", w + 1, names[w]));
+			for (int o = 0; o < n; o++) {
+				out.print(o == w ? String.format(" %6s", "-") : String.format(" %6d", wins[w][o]));
+			}
+			out.println();
+		}
+		
+	}
+	
+}
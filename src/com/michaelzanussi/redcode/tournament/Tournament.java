@@ -0,0 +1,314 @@
+package com.michaelzanussi.redcode.tournament;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.michaelzanussi.redcode.Assembler;
+import com.michaelzanussi.redcode.BadInstructionException;
+import com.michaelzanussi.redcode.ParsingException;
+import com.michaelzanussi.redcode.rvm.FastRVM;
+import com.michaelzanussi.redcode.rvm.RVM;
+
+/**
+ * A round-robin tournament: every combination of a given number of the
+ * warriors entered battles a given number of rounds. Each battle runs 
+ * in an RVM of its own, and the battles are spread over a pool of 
+ * threads. <p>
+ * 
+ * Each warrior is assembled once and its program shared by every
+ * battle. The battles of a combination differ in where the programs
+ * are placed, and in which player moves first: in each round, the
+ * order of the players is rotated by one. The battles take their seeds
+ * in turn from a generator seeded with the tournament seed, so that 
+ * tournaments with different seeds do not share battles, and a 
+ * tournament gives the same standings however many threads run it.
+ * 
+ * @author <a href="mailto:iosdevx@gmail.com">Michael Zanussi</a>
+ * @version 1.0 (16 October 2026)
+ */
+public class Tournament {
+
+	private String names[];			// the warriors' names
+	private Assembler programs[];	// the warriors' programs
+	private int players;			// warriors per battle
+	private int rounds;				// battles per combination
+	private int cycles;				// longest battle
+	private int size;				// RVM memory size
+	private long seed;				// tournament seed
+	private boolean fast;			// use the switch engine?
+	private int threads;			// size of the thread pool
+	
+	/**
+	 * Enter the specified warriors. By default, the tournament pairs 
+	 * the warriors for 10 rounds of 10,000 cycles in an 8,000 location
+	 * memory, with a thread per processor.
+	 * 
+	 * @param warriors the Redcode programs of the warriors
+	 * @throws FileNotFoundException If a warrior file cannot be located.
+	 * @throws BadInstructionException If a bad instruction is encountered.
+	 * @throws ParsingException If problems occur while parsing a warrior.
+	 */
+	public Tournament(List<File> warriors) throws FileNotFoundException, BadInstructionException, ParsingException {
+		
+		names = new String[warriors.size()];
+		programs = new Assembler[warriors.size()];
+		for (int i = 0; i < programs.length; i++) {
+			names[i] = warriors.get(i).getName();
+			programs[i] = new Assembler();
+			programs[i].load(warriors.get(i));
+			
+			// Take the program image now, so that the battles only
+			// ever read it.
+			programs[i].getImage();
+		}
+		
+		players = 2;
+		rounds = 10;
+		cycles = 10000;
+		size = 8000;
+		seed = 1;
+		fast = false;
+		threads = Runtime.getRuntime().availableProcessors();
+		
+	}
+	
+	/**
+	 * @param players the number of warriors in each battle, from 1 to 
+	 * the smaller of 9 and the number of warriors
+	 */
+	public void setPlayers(int players) {
+		if (players < 1 || players > 9 || players > programs.length) {
+			throw new IllegalArgumentException("Illegal number of players: " + players);
+		}
+		this.players = players;
+	}
+	
+	/**
+	 * @param rounds the number of battles for each combination of warriors
+	 */
+	public void setRounds(int rounds) {
+		this.rounds = rounds;
+	}
+	
+	/**
+	 * @param cycles the number of cycles after which a battle ends
+	 */
+	public void setCycles(int cycles) {
+		this.cycles = cycles;
+	}
+	
+	/**
+	 * @param size the RVM memory size
+	 */
+	public void setSize(int size) {
+		this.size = size;
+	}
+	
+	/**
+	 * @param seed the tournament seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+	
+	/**
+	 * @param fast <code>true</code> to run battles with the switch engine
+	 */
+	public void setFast(boolean fast) {
+		this.fast = fast;
+	}
+	
+	/**
+	 * @param threads the number of threads running battles
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Illegal number of threads: " + threads);
+		}
+		this.threads = threads;
+	}
+	
+	/**
+	 * Run the tournament.
+	 * 
+	 * @return the standings
+	 * @throws InterruptedException If interrupted waiting for a battle.
+	 * @throws ExecutionException If a battle fails, for example because
+	 * the programs do not fit in memory.
+	 */
+	public Standings run() throws InterruptedException, ExecutionException {
+		
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			
+			// Submit every battle, each seeded in turn from the 
+			// tournament seed.
+			SplittableRandom seeds = new SplittableRandom(seed);
+			List<Battle> battles = new ArrayList<Battle>();
+			List<Future<int[]>> results = new ArrayList<Future<int[]>>();
+			for (int combination[] : combinations(programs.length, players)) {
+				for (int round = 0; round < rounds; round++) {
+					int warriors[] = new int[players];
+					for (int i = 0; i < players; i++) {
+						warriors[i] = combination[(i + round) % players];
+					}
+					Battle battle = new Battle(warriors, seeds.nextLong());
+					battles.add(battle);
+					results.add(pool.submit(battle));
+				}
+			}
+			
+			// Collect the results, in the order submitted.
+			Standings standings = new Standings(names);
+			for (int i = 0; i < battles.size(); i++) {
+				int result[] = results.get(i).get();
+				int warriors[] = battles.get(i).warriors;
+				int winner = (result[0] == 0 ? -1 : warriors[result[0] - 1]);
+				int score[] = new int[players];
+				System.arraycopy(result, 1, score, 0, players);
+				standings.add(warriors, winner, score);
+			}
+			return standings;
+			
+		} finally {
+			pool.shutdownNow();
+		}
+		
+	}
+	
+	/**
+	 * Returns every combination of k of the numbers from 0 to n - 1, 
+	 * each in increasing order, in lexicographic order.
+	 * 
+	 * @param n the number of numbers
+	 * @param k the numbers in a combination
+	 * @return the combinations
+	 */
+	private static List<int[]> combinations(int n, int k) {
+		List<int[]> combinations = new ArrayList<int[]>();
+		int c[] = new int[k];
+		for (int i = 0; i < k; i++) {
+			c[i] = i;
+		}
+		while (true) {
+			combinations.add(c.clone());
+			
+			// Advance the rightmost number that can be advanced, and
+			// reset those to its right.
+			int i = k - 1;
+			while (i >= 0 && c[i] == n - k + i) {
+				i--;
+			}
+			if (i < 0) {
+				return combinations;
+			}
+			c[i]++;
+			for (int j = i + 1; j < k; j++) {
+				c[j] = c[j - 1] + 1;
+			}
+		}
+	}
+	
+	/**
+	 * A battle of the tournament. The result is the winning player, or
+	 * 0 if none, followed by the score of each player.
+	 */
+	private class Battle implements Callable<int[]> {
+		
+		int warriors[];		// the warrior of each player
+		long seed;			// the battle seed
+		
+		Battle(int warriors[], long seed) {
+			this.warriors = warriors;
+			this.seed = seed;
+		}
+		
+		public int[] call() {
+			RVM rvm = (fast ? new FastRVM(size) : new RVM(size));
+			rvm.setSeed(seed);
+			for (int i = 0; i < warriors.length; i++) {
+				rvm.loadProgram(programs[warriors[i]], i + 1);
+			}
+			int result[] = new int[warriors.length + 1];
+			result[0] = rvm.battle(cycles);
+			for (int i = 0; i < warriors.length; i++) {
+				result[i + 1] = rvm.score(i + 1);
+			}
+			return result;
+		}
+		
+	}
+	
+	/**
+	 * Run a tournament between the warriors named on the command line:
+	 * <pre>
+	 * Tournament [-players k] [-rounds r] [-cycles c] [-size s] 
+	 *            [-seed x] [-threads t] [-fast] warrior.war ...
+	 * </pre>
+	 * 
+	 * @param args the command line
+	 * @throws Exception If the tournament cannot be run.
+	 */
+	public static void main(String[] args) throws Exception {
+		
+		List<File> warriors = new ArrayList<File>();
+		List<String> options = new ArrayList<String>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-fast")) {
+				options.add(args[i]);
+			} else if (args[i].startsWith("-") && i + 1 < args.length) {
+				options.add(args[i]);
+				options.add(args[++i]);
+			} else {
+				warriors.add(new File(args[i]));
+			}
+		}
+		if (warriors.size() < 2) {
+			System.err.println("usage: Tournament [-players k] [-rounds r] [-cycles c] [-size s] [-seed x] [-threads t] [-fast] warrior.war ...");
+			System.exit(2);
+		}
+		
+		Tournament t = new Tournament(warriors);
+		for (int i = 0; i < options.size(); i++) {
+			String option = options.get(i);
+			if (option.equals("-fast")) {
+				t.setFast(true);
+				continue;
+			}
+			String value = options.get(++i);
+			if (option.equals("-seed")) {
+				t.setSeed(Long.parseLong(value));
+			} else if (option.equals("-players")) {
+				t.setPlayers(Integer.parseInt(value));
+			} else if (option.equals("-rounds")) {
+				t.setRounds(Integer.parseInt(value));
+			} else if (option.equals("-cycles")) {
+				t.setCycles(Integer.parseInt(value));
+			} else if (option.equals("-size")) {
+				t.setSize(Integer.parseInt(value));
+			} else if (option.equals("-threads")) {
+				t.setThreads(Integer.parseInt(value));
+			} else {
+				throw new IllegalArgumentException("Unknown option: " + option);
+			}
+		}
+		
+		long start = System.nanoTime();
+		Standings standings = t.run();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		
+		standings.print(System.out);
+		System.out.println();
+		System.out.println(String.format("%.2f seconds, %d threads", seconds, t.threads));
+		
+	}
+	
+}